@@ -0,0 +1,72 @@
+-- Planes de la búsqueda (q=) con y sin los índices trigram, sobre los datos de
+-- search-seed-postgresql.sql. Los índices los crea la aplicación al arrancar
+-- (src/main/resources/db/search-indexes-postgresql.sql); si no, ejecutar ese script antes.
+--
+--   psql -h localhost -U admin -d prueba_tecnica -f db/search-explain-postgresql.sql
+--
+-- Las consultas son las que genera FilterSpecBuilder para GET /api/products?q=<términos>: cada
+-- término como lower(col) LIKE '%término%' sobre name y description, la página ordenada por id y
+-- el count del total. Los LIKE de menos de 3 caracteres no aprovechan el índice trigram.
+
+\timing on
+
+-- Con índices trigram
+\echo '=== Con índices trigram: término único (sku-654321) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.name, p.price, p.stock
+FROM products p
+WHERE p.deleted_at IS NULL
+  AND (lower(p.name) LIKE '%sku-654321%' ESCAPE '\' OR lower(p.description) LIKE '%sku-654321%' ESCAPE '\')
+ORDER BY p.id
+LIMIT 20;
+
+\echo '=== Con índices trigram: dos términos poco frecuentes (count) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*)
+FROM products p
+WHERE p.deleted_at IS NULL
+  AND (lower(p.name) LIKE '%lenovo%' ESCAPE '\' OR lower(p.description) LIKE '%lenovo%' ESCAPE '\')
+  AND (lower(p.name) LIKE '%laptop%' ESCAPE '\' OR lower(p.description) LIKE '%laptop%' ESCAPE '\');
+
+\echo '=== Con índices trigram: término común (página) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.name, p.price, p.stock
+FROM products p
+WHERE p.deleted_at IS NULL
+  AND (lower(p.name) LIKE '%monitor%' ESCAPE '\' OR lower(p.description) LIKE '%monitor%' ESCAPE '\')
+ORDER BY p.id
+LIMIT 20;
+
+-- Sin índices trigram: se borran dentro de la transacción y el ROLLBACK los restaura. DROP INDEX
+-- bloquea la tabla hasta el final: solo en una BD de pruebas
+BEGIN;
+DROP INDEX idx_products_name_trgm;
+DROP INDEX idx_products_description_trgm;
+
+\echo '=== Sin índices (LIKE con escaneo secuencial): término único (sku-654321) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.name, p.price, p.stock
+FROM products p
+WHERE p.deleted_at IS NULL
+  AND (lower(p.name) LIKE '%sku-654321%' ESCAPE '\' OR lower(p.description) LIKE '%sku-654321%' ESCAPE '\')
+ORDER BY p.id
+LIMIT 20;
+
+\echo '=== Sin índices: dos términos poco frecuentes (count) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*)
+FROM products p
+WHERE p.deleted_at IS NULL
+  AND (lower(p.name) LIKE '%lenovo%' ESCAPE '\' OR lower(p.description) LIKE '%lenovo%' ESCAPE '\')
+  AND (lower(p.name) LIKE '%laptop%' ESCAPE '\' OR lower(p.description) LIKE '%laptop%' ESCAPE '\');
+
+\echo '=== Sin índices: término común (página) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, p.name, p.price, p.stock
+FROM products p
+WHERE p.deleted_at IS NULL
+  AND (lower(p.name) LIKE '%monitor%' ESCAPE '\' OR lower(p.description) LIKE '%monitor%' ESCAPE '\')
+ORDER BY p.id
+LIMIT 20;
+
+ROLLBACK;
@@ -0,0 +1,58 @@
+-- Datos para reproducir la búsqueda (q=) sobre 1M de productos en PostgreSQL. El esquema lo crea la
+-- aplicación (ddl-auto): arrancarla una vez contra la BD antes de ejecutar este script.
+--
+--   psql -h localhost -U admin -d prueba_tecnica -f db/search-seed-postgresql.sql
+--
+-- Determinista: los nombres salen de combinar listas fijas por el número de fila, así que cada
+-- término tiene siempre la misma selectividad (ver search-explain-postgresql.sql). Borra antes los
+-- datos de una ejecución anterior (usuario "bench").
+
+\set products 1000000
+
+BEGIN;
+
+DELETE FROM products WHERE user_id IN (SELECT id FROM users WHERE username = 'bench');
+DELETE FROM categories WHERE user_id IN (SELECT id FROM users WHERE username = 'bench');
+DELETE FROM users WHERE username = 'bench';
+
+-- La contraseña no es un hash válido: el usuario solo es dueño de los datos, no inicia sesión
+INSERT INTO users (full_name, username, password, role, created_at, version)
+VALUES ('Usuario Benchmark', 'bench', '-', 'ADMIN', now(), 0);
+
+INSERT INTO categories (name, description, user_id, created_at, version)
+SELECT 'Bench ' || c, 'Categoría de prueba ' || c, u.id, now(), 0
+FROM generate_series(1, 50) AS c, users u
+WHERE u.username = 'bench';
+
+-- Término común: cada tipo (~1/12 de las filas). Poco frecuente: cada marca (~1/17, combinada con
+-- el tipo ~1/200). Único: el código "sku-<n>" de la descripción.
+INSERT INTO products (name, description, price, stock, user_id, category_id, created_at, version)
+SELECT
+    (ARRAY['Laptop', 'Mouse', 'Teclado', 'Monitor', 'Audífonos', 'Parlante', 'Cámara', 'Impresora',
+           'Router', 'Tablet', 'Disco', 'Memoria'])[1 + n % 12]
+        || ' ' ||
+    (ARRAY['Lenovo', 'Logitech', 'Samsung', 'Kingston', 'Asus', 'Acer', 'Sony', 'Epson', 'Canon',
+           'Xiaomi', 'Huawei', 'Dell', 'HP', 'Razer', 'Corsair', 'TP-Link', 'Philips'])[1 + n % 17]
+        || ' ' || n,
+    'Producto de prueba número ' || n || ', código sku-' || n || '. '
+        || (ARRAY['Ideal para oficina.', 'Edición gamer.', 'Incluye garantía de un año.',
+                  'Compatible con USB-C.', 'Modelo reacondicionado.'])[1 + n % 5],
+    round((10 + (n::bigint * 7919) % 500000 / 100.0)::numeric, 2),
+    (n * 31) % 1000,
+    u.id,
+    c.ids[1 + n % array_length(c.ids, 1)],
+    now() - (n % 365) * interval '1 day',
+    0
+FROM generate_series(1, :products) AS n,
+     users u,
+     (SELECT array_agg(id ORDER BY id) AS ids
+      FROM categories
+      WHERE user_id = (SELECT id FROM users WHERE username = 'bench')) c
+WHERE u.username = 'bench';
+
+COMMIT;
+
+-- Estadísticas al día para que el planificador estime bien la selectividad de cada término
+ANALYZE users;
+ANALYZE categories;
+ANALYZE products;
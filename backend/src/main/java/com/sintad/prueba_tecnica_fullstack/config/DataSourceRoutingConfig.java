@@ -0,0 +1,68 @@
+package com.sintad.prueba_tecnica_fullstack.config;
+
+import com.sintad.prueba_tecnica_fullstack.shared.datasource.ReadWriteRoutingDataSource;
+import com.sintad.prueba_tecnica_fullstack.shared.datasource.ReadYourWritesWindow;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Activa el enrutamiento lectura/escritura solo si se configura una réplica
+ * ({@code app.datasource.replica.url}); sin ella se usa el DataSource por defecto.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(Environment environment) {
+        DataSourceProperties replica = Binder.get(environment)
+                .bind("app.datasource.replica", DataSourceProperties.class)
+                .get();
+        return replica.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /** También lo usa {@code ListResponseCache} para no guardar listados leídos de una réplica atrasada. */
+    @Bean
+    public ReadYourWritesWindow readYourWritesWindow(
+            @Value("${app.datasource.read-your-writes.window:5s}") Duration window,
+            @Value("${app.datasource.read-your-writes.max-size:10000}") long maxSize) {
+        return new ReadYourWritesWindow(window, maxSize);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 MeterRegistry meterRegistry,
+                                 ReadYourWritesWindow readYourWritesWindow) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                primary, replica, readYourWritesWindow, meterRegistry);
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        // Valores por defecto de Hikari/PostgreSQL: evita pedir una conexión física solo para detectarlos
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+}
@@ -0,0 +1,12 @@
+package com.sintad.prueba_tecnica_fullstack.config;
+
+import com.sintad.prueba_tecnica_fullstack.shared.repository.BaseRepositoryImpl;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EnableJpaRepositories(
+        basePackages = "com.sintad.prueba_tecnica_fullstack.repository",
+        repositoryBaseClass = BaseRepositoryImpl.class)
+public class JpaConfig {
+}
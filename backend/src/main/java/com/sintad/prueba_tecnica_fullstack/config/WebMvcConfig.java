@@ -1,7 +1,6 @@
 package com.sintad.prueba_tecnica_fullstack.config;
 
 import com.sintad.prueba_tecnica_fullstack.shared.interceptor.JwtAuthInterceptor;
-import com.sintad.prueba_tecnica_fullstack.shared.interceptor.RequestLogInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -11,13 +10,10 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
-    private final RequestLogInterceptor requestLogInterceptor;
     private final JwtAuthInterceptor jwtAuthInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-
-        registry.addInterceptor(requestLogInterceptor).addPathPatterns("/**");
         registry.addInterceptor(jwtAuthInterceptor)
                 .addPathPatterns("/api/**")
                 .excludePathPatterns("/api/auth/**", "/api/seed");
@@ -38,7 +38,7 @@ public class AuthController {
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole());
 
         return ResponseEntity.ok(ApiResponse.ok(new LoginResponse(token, request.getUsername(), user.getRole())));
     }
@@ -4,10 +4,18 @@ import com.sintad.prueba_tecnica_fullstack.dto.category.CategoryListRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.category.CategoryRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.category.CategoryResponse;
 import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.ICategoryService;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ConditionalGet;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.JsonBytesCache;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ListResponseCache;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
 import com.sintad.prueba_tecnica_fullstack.shared.dto.ApiResponse;
 import com.sintad.prueba_tecnica_fullstack.shared.dto.PageResponse;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.FilterSpecBuilder;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalCountCache;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalMode;
 import com.sintad.prueba_tecnica_fullstack.shared.util.PageableUtil;
 import com.sintad.prueba_tecnica_fullstack.shared.validation.OnCreate;
 import com.sintad.prueba_tecnica_fullstack.shared.validation.OnUpdate;
@@ -17,14 +25,17 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping(value = "/api/categories", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -33,6 +44,10 @@ public class CategoryController {
 
     private final ICategoryService categoryService;
     private final FilterSpecBuilder<Category> specBuilder;
+    private final TotalCountCache totalCountCache;
+    private final ConditionalGet conditionalGet;
+    private final ListResponseCache listResponseCache;
+    private final JsonBytesCache jsonBytesCache;
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Crear categoría")
@@ -45,26 +60,38 @@ public class CategoryController {
 
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Obtener categoría por ID")
-    public ResponseEntity<ApiResponse<CategoryResponse>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(ApiResponse.ok(categoryService.getById(id)));
+    public ResponseEntity<byte[]> getById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<ResourceState> state = categoryService.findState(id);
+        if (state.isEmpty()) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonBytesCache.serialize(ApiResponse.ok(categoryService.getById(id))));
+        }
+        ConditionalGet.Validators validators = conditionalGet.forResource(id, state.get(), User.class);
+        if (validators.matches(webRequest)) {
+            return validators.notModified();
+        }
+        return validators.ok(jsonBytesCache.get("category:" + validators.etag(),
+                () -> ApiResponse.ok(categoryService.getById(id))));
     }
 
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Actualizar categoría")
+    @Operation(summary = "Actualizar categoría", description = "Con If-Match, 409 y el estado actual si la versión no coincide")
     public ResponseEntity<ApiResponse<CategoryResponse>> update(
             @PathVariable Long id,
-            @Validated(OnUpdate.class) @RequestBody CategoryRequest request) {
+            @Validated(OnUpdate.class) @RequestBody CategoryRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(ApiResponse.ok(categoryService.update(id, request)));
+                .body(ApiResponse.ok(categoryService.update(id, request,
+                        ConditionalGet.ifMatchVersion(ifMatch).orElse(null))));
     }
 
     @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Eliminar categoría")
-    public ResponseEntity<ApiResponse<String>> delete(@PathVariable Long id) {
-        categoryService.delete(id);
+    public ResponseEntity<ApiResponse<String>> delete(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        categoryService.delete(id, ConditionalGet.ifMatchVersion(ifMatch).orElse(null));
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(ApiResponse.ok("Categoría eliminada correctamente"));
@@ -75,14 +102,34 @@ public class CategoryController {
     public ResponseEntity<ApiResponse<PageResponse<CategoryResponse>>> list(
             @ParameterObject @Valid CategoryListRequest listRequest,
             @Parameter(hidden = true) @RequestParam MultiValueMap<String, String> params,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            WebRequest webRequest) {
 
+        ConditionalGet.Validators validators = conditionalGet.forList(Category.class, User.class);
+        if (validators.matches(webRequest)) {
+            return validators.notModified();
+        }
+
+        return validators.ok(ApiResponse.ok(listResponseCache.get(validators, request,
+                () -> search(listRequest, params, request))));
+    }
+
+    private PageResponse<CategoryResponse> search(CategoryListRequest listRequest,
+                                                  MultiValueMap<String, String> params,
+                                                  HttpServletRequest request) {
         Specification<Category> spec = specBuilder.build(Category.class, Category.ALLOWED_FILTERS, params);
+        if (PageableUtil.isCursorMode(listRequest)) {
+            CursorRequest cursorRequest = PageableUtil.cursorFromListRequest(listRequest, Category.SORTABLE_FIELDS);
+            return PageResponse.from(categoryService.scroll(spec, cursorRequest), request);
+        }
         Pageable pageable = PageableUtil.fromListRequest(listRequest);
-        Page<CategoryResponse> page = categoryService.search(spec, pageable);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(ApiResponse.ok(PageResponse.from(page, request)));
+        return switch (TotalMode.from(listRequest.getTotal())) {
+            case EXACT -> PageResponse.from(categoryService.search(spec, pageable), request);
+            case NONE -> PageResponse.from(categoryService.searchSlice(spec, pageable), request);
+            case ESTIMATE -> PageResponse.from(totalCountCache.withEstimatedTotal(
+                    PageableUtil.filterSignature(Category.class, params),
+                    categoryService.searchSlice(spec, pageable),
+                    () -> categoryService.count(spec)), request);
+        };
     }
 }
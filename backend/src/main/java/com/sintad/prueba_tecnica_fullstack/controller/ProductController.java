@@ -1,13 +1,32 @@
 package com.sintad.prueba_tecnica_fullstack.controller;
 
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductBulkUpdateRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductResponse;
+import com.sintad.prueba_tecnica_fullstack.dto.product.StockAdjustRequest;
+import com.sintad.prueba_tecnica_fullstack.dto.product.StockResponse;
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductListRequest;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
 import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.service.interfaces.IProductBulkService;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.IProductService;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ConditionalGet;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.JsonBytesCache;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ListResponseCache;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
 import com.sintad.prueba_tecnica_fullstack.shared.dto.ApiResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.BulkResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.ImportResponse;
 import com.sintad.prueba_tecnica_fullstack.shared.dto.PageResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.export.CsvColumn;
+import com.sintad.prueba_tecnica_fullstack.shared.export.ExportFormat;
+import com.sintad.prueba_tecnica_fullstack.shared.export.StreamingExporter;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.FilterSpecBuilder;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalCountCache;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalMode;
+import com.sintad.prueba_tecnica_fullstack.shared.stock.StockLedger;
 import com.sintad.prueba_tecnica_fullstack.shared.util.PageableUtil;
 import com.sintad.prueba_tecnica_fullstack.shared.validation.OnCreate;
 import com.sintad.prueba_tecnica_fullstack.shared.validation.OnUpdate;
@@ -17,23 +36,52 @@ import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
 
 import org.springdoc.core.annotations.ParameterObject;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
     private final IProductService productService;
+    private final IProductBulkService productBulkService;
     private final FilterSpecBuilder<Product> specBuilder;
+    private final TotalCountCache totalCountCache;
+    private final StreamingExporter streamingExporter;
+    private final ConditionalGet conditionalGet;
+    private final ListResponseCache listResponseCache;
+    private final JsonBytesCache jsonBytesCache;
+    private final ObjectProvider<StockLedger> stockLedger;
+
+    private static final List<CsvColumn<ProductResponse>> EXPORT_COLUMNS = List.of(
+            new CsvColumn<>("id", ProductResponse::getId),
+            new CsvColumn<>("name", ProductResponse::getName),
+            new CsvColumn<>("description", ProductResponse::getDescription),
+            new CsvColumn<>("price", ProductResponse::getPrice),
+            new CsvColumn<>("stock", ProductResponse::getStock),
+            new CsvColumn<>("categoryId", ProductResponse::getCategoryId),
+            new CsvColumn<>("categoryName", ProductResponse::getCategoryName),
+            new CsvColumn<>("userId", ProductResponse::getUserId),
+            new CsvColumn<>("userName", ProductResponse::getUserName),
+            new CsvColumn<>("createdAt", ProductResponse::getCreatedAt));
 
     @PostMapping
     @Operation(summary = "Crear producto")
@@ -41,35 +89,124 @@ public class ProductController {
         return ApiResponse.ok(productService.create(request));
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Crear productos en lote", description = "Valida cada elemento y devuelve el resultado por posición")
+    public ApiResponse<BulkResponse> createBulk(@RequestBody List<ProductRequest> requests) {
+        return ApiResponse.ok(productBulkService.createAll(requests));
+    }
+
+    @PutMapping("/bulk")
+    @Operation(summary = "Actualizar productos en lote", description = "Cada elemento indica el ID y los campos a modificar")
+    public ApiResponse<BulkResponse> updateBulk(@RequestBody List<ProductBulkUpdateRequest> requests) {
+        return ApiResponse.ok(productBulkService.updateAll(requests));
+    }
+
+    @PostMapping("/import")
+    @Operation(summary = "Importar productos desde CSV o NDJSON",
+            description = "El cuerpo (text/csv o application/x-ndjson) se lee en streaming y se guarda por lotes; "
+                    + "la categoría se indica con categoryId o categoryName")
+    public ApiResponse<ImportResponse> importProducts(
+            @Parameter(description = "Formato del cuerpo: ndjson o csv") @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+        ExportFormat importFormat = ExportFormat.from(format);
+        return ApiResponse.ok(productBulkService.importFrom(request.getInputStream(), importFormat));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar productos filtrados",
+            description = "Admite los mismos filtros que el listado y escribe las filas a medida que se leen")
+    public ResponseEntity<StreamingResponseBody> export(
+            @ParameterObject @Valid ProductListRequest listRequest,
+            @Parameter(description = "Formato de salida: ndjson o csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(hidden = true) @RequestParam MultiValueMap<String, String> params) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        Specification<Product> spec = specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params);
+        Sort sort = PageableUtil.exportSort(listRequest);
+        return streamingExporter.export(exportFormat, "productos", EXPORT_COLUMNS,
+                consumer -> productService.export(spec, sort, consumer));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener producto por ID")
-    public ApiResponse<ProductResponse> getById(@PathVariable Long id) {
-        return ApiResponse.ok(productService.getById(id));
+    public ResponseEntity<byte[]> getById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<ResourceState> state = productService.findState(id);
+        if (state.isEmpty()) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonBytesCache.serialize(ApiResponse.ok(productService.getById(id))));
+        }
+        // Con el ledger la BD va por detrás: el stock en memoria se lee una vez y va en el ETag y en
+        // el cuerpo, así cada ajuste aceptado invalida la copia del cliente y la del caché
+        StockLedger ledger = stockLedger.getIfAvailable();
+        Optional<StockLedger.Live> live = ledger == null ? Optional.empty() : ledger.peek(id);
+        ResourceState current = live.map(l -> state.get().withVariant("s" + l.available(), l.changedAt()))
+                .orElse(state.get());
+        ConditionalGet.Validators validators = conditionalGet.forResource(id, current, Category.class, User.class);
+        if (validators.matches(webRequest)) {
+            return validators.notModified();
+        }
+        // Cuerpo ya serializado: los productos más consultados no pasan por la BD ni por Jackson
+        return validators.ok(jsonBytesCache.get("product:" + validators.etag(), () -> {
+            ProductResponse product = productService.getById(id);
+            live.ifPresent(l -> product.setStock(l.available()));
+            return ApiResponse.ok(product);
+        }));
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Actualizar producto")
+    @Operation(summary = "Actualizar producto", description = "Con If-Match, 409 y el estado actual si la versión no coincide")
     public ApiResponse<ProductResponse> update(@PathVariable Long id,
-            @Validated(OnUpdate.class) @RequestBody ProductRequest request) {
-        return ApiResponse.ok(productService.update(id, request));
+            @Validated(OnUpdate.class) @RequestBody ProductRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return ApiResponse.ok(productService.update(id, request, ConditionalGet.ifMatchVersion(ifMatch).orElse(null)));
+    }
+
+    @PostMapping("/{id}/stock/adjust")
+    @Operation(summary = "Ajustar stock", description = "Suma el delta de forma atómica; 409 si el stock quedaría negativo")
+    public ApiResponse<StockResponse> adjustStock(@PathVariable Long id, @Valid @RequestBody StockAdjustRequest request) {
+        return ApiResponse.ok(new StockResponse(id, productService.adjustStock(id, request.getDelta())));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar producto")
-    public ApiResponse<String> delete(@PathVariable Long id) {
-        productService.delete(id);
+    public ApiResponse<String> delete(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        productService.delete(id, ConditionalGet.ifMatchVersion(ifMatch).orElse(null));
         return ApiResponse.ok("Producto eliminado correctamente");
     }
 
     @GetMapping
     @Operation(summary = "Listar productos con paginación y filtros dinámicos")
-    public ApiResponse<PageResponse<ProductResponse>> list(
+    public ResponseEntity<ApiResponse<PageResponse<ProductResponse>>> list(
             @ParameterObject @Valid ProductListRequest listRequest,
             @Parameter(hidden = true) @RequestParam MultiValueMap<String, String> params,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            WebRequest webRequest) {
+        // Los productos muestran nombres de categoría y usuario: cualquiera de los tres invalida el listado
+        ConditionalGet.Validators validators = conditionalGet.forList(Product.class, Category.class, User.class);
+        if (validators.matches(webRequest)) {
+            return validators.notModified();
+        }
+        return validators.ok(ApiResponse.ok(listResponseCache.get(validators, request,
+                () -> search(listRequest, params, request))));
+    }
+
+    private PageResponse<ProductResponse> search(ProductListRequest listRequest,
+                                                 MultiValueMap<String, String> params,
+                                                 HttpServletRequest request) {
         Specification<Product> spec = specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params);
+        if (PageableUtil.isCursorMode(listRequest)) {
+            CursorRequest cursorRequest = PageableUtil.cursorFromListRequest(listRequest, Product.SORTABLE_FIELDS);
+            return PageResponse.from(productService.scroll(spec, cursorRequest), request);
+        }
         Pageable pageable = PageableUtil.fromListRequest(listRequest);
-        Page<ProductResponse> page = productService.search(spec, pageable);
-        return ApiResponse.ok(PageResponse.from(page, request));
+        return switch (TotalMode.from(listRequest.getTotal())) {
+            case EXACT -> PageResponse.from(productService.search(spec, pageable), request);
+            case NONE -> PageResponse.from(productService.searchSlice(spec, pageable), request);
+            case ESTIMATE -> PageResponse.from(totalCountCache.withEstimatedTotal(
+                    PageableUtil.filterSignature(Product.class, params),
+                    productService.searchSlice(spec, pageable),
+                    () -> productService.count(spec)), request);
+        };
     }
 }
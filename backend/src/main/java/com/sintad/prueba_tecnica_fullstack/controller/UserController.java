@@ -8,6 +8,10 @@ import com.sintad.prueba_tecnica_fullstack.service.interfaces.IUserService;
 import com.sintad.prueba_tecnica_fullstack.shared.dto.ApiResponse;
 import com.sintad.prueba_tecnica_fullstack.shared.dto.PageResponse;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.FilterSpecBuilder;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ConditionalGet;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalCountCache;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalMode;
 import com.sintad.prueba_tecnica_fullstack.shared.util.PageableUtil;
 import com.sintad.prueba_tecnica_fullstack.shared.validation.OnCreate;
 import com.sintad.prueba_tecnica_fullstack.shared.validation.OnUpdate;
@@ -16,8 +20,8 @@ import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
 
 import org.springdoc.core.annotations.ParameterObject;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.MultiValueMap;
 import org.springframework.validation.annotation.Validated;
@@ -32,6 +36,7 @@ public class UserController {
 
     private final IUserService userService;
     private final FilterSpecBuilder<User> specBuilder;
+    private final TotalCountCache totalCountCache;
 
     @PostMapping
     @Operation(summary = "Crear usuario")
@@ -46,16 +51,18 @@ public class UserController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Actualizar usuario")
+    @Operation(summary = "Actualizar usuario", description = "Con If-Match, 409 y el estado actual si la versión no coincide")
     public ApiResponse<UserResponse> update(@PathVariable Long id,
-                                            @Validated(OnUpdate.class) @RequestBody UserRequest request) {
-        return ApiResponse.ok(userService.update(id, request));
+                                            @Validated(OnUpdate.class) @RequestBody UserRequest request,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return ApiResponse.ok(userService.update(id, request, ConditionalGet.ifMatchVersion(ifMatch).orElse(null)));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar usuario")
-    public ApiResponse<String> delete(@PathVariable Long id) {
-        userService.delete(id);
+    public ApiResponse<String> delete(@PathVariable Long id,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        userService.delete(id, ConditionalGet.ifMatchVersion(ifMatch).orElse(null));
         return ApiResponse.ok("Usuario eliminado correctamente");
     }
 
@@ -67,9 +74,18 @@ public class UserController {
             HttpServletRequest request) {
 
         Specification<User> spec = specBuilder.build(User.class, User.ALLOWED_FILTERS, params);
+        if (PageableUtil.isCursorMode(listRequest)) {
+            CursorRequest cursorRequest = PageableUtil.cursorFromListRequest(listRequest, User.SORTABLE_FIELDS);
+            return ApiResponse.ok(PageResponse.from(userService.scroll(spec, cursorRequest), request));
+        }
         Pageable pageable = PageableUtil.fromListRequest(listRequest);
-
-        Page<UserResponse> page = userService.search(spec, pageable);
-        return ApiResponse.ok(PageResponse.from(page, request));
+        return ApiResponse.ok(switch (TotalMode.from(listRequest.getTotal())) {
+            case EXACT -> PageResponse.from(userService.search(spec, pageable), request);
+            case NONE -> PageResponse.from(userService.searchSlice(spec, pageable), request);
+            case ESTIMATE -> PageResponse.from(totalCountCache.withEstimatedTotal(
+                    PageableUtil.filterSignature(User.class, params),
+                    userService.searchSlice(spec, pageable),
+                    () -> userService.count(spec)), request);
+        });
     }
 }
@@ -10,6 +10,9 @@ import lombok.*;
 @Schema(description = "DTO para listar categorías con filtros y paginación")
 public class CategoryListRequest extends BaseListRequest {
 
+    @Schema(description = "Búsqueda por texto en nombre y descripción; todos los términos deben aparecer", example = "electro hogar")
+    private String q;
+
     @Schema(description = "Filtrar por nombre de la categoría", example = "Electrónica")
     private String name;
 }
@@ -0,0 +1,18 @@
+package com.sintad.prueba_tecnica_fullstack.dto.product;
+
+import com.sintad.prueba_tecnica_fullstack.shared.validation.OnUpdate;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+@Schema(description = "Elemento de la actualización masiva de productos: ID más los campos a modificar")
+public class ProductBulkUpdateRequest extends ProductRequest {
+
+    @Schema(description = "ID del producto a actualizar", example = "1")
+    @NotNull(groups = OnUpdate.class)
+    private Long id;
+}
@@ -0,0 +1,15 @@
+package com.sintad.prueba_tecnica_fullstack.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+@Schema(description = "Fila de la importación de productos: la categoría se indica por ID o por nombre")
+public class ProductImportRow extends ProductRequest {
+
+    @Schema(description = "Nombre de la categoría, si no se envía categoryId", example = "Tecnología")
+    private String categoryName;
+}
@@ -10,6 +10,9 @@ import lombok.*;
 @Schema(description = "DTO para listar productos con paginación y filtros")
 public class ProductListRequest extends BaseListRequest {
 
+    @Schema(description = "Búsqueda por texto en nombre y descripción; todos los términos deben aparecer", example = "laptop gamer")
+    private String q;
+
     @Schema(description = "Filtrar por nombre del producto", example = "Laptop Gamer")
     private String name;
 
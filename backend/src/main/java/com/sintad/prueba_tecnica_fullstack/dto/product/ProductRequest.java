@@ -1,7 +1,9 @@
 package com.sintad.prueba_tecnica_fullstack.dto.product;
 
+import com.sintad.prueba_tecnica_fullstack.shared.validation.OnUpdate;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
+import jakarta.validation.groups.Default;
 import lombok.*;
 import java.math.BigDecimal;
 
@@ -13,18 +15,18 @@ import java.math.BigDecimal;
 public class ProductRequest {
 
     @Schema(description = "Nombre del producto", example = "Laptop Gamer")
-    @NotBlank @Size(max = 150)
+    @NotBlank @Size(max = 150, groups = {Default.class, OnUpdate.class})
     private String name;
 
     @Schema(description = "Descripción del producto", example = "Laptop de alto rendimiento")
     private String description;
 
     @Schema(description = "Precio del producto", example = "3500.50")
-    @NotNull @DecimalMin("0.01")
+    @NotNull @DecimalMin(value = "0.01", groups = {Default.class, OnUpdate.class})
     private BigDecimal price;
 
     @Schema(description = "Cantidad en stock", example = "10")
-    @NotNull @Min(0)
+    @NotNull @Min(value = 0, groups = {Default.class, OnUpdate.class})
     private Integer stock;
 
 
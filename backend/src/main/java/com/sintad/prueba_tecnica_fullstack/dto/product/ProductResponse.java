@@ -42,4 +42,7 @@ public class ProductResponse {
 
     @Schema(description = "Fecha de creación", example = "2025-09-30T12:00:00")
     private LocalDateTime createdAt;
+
+    @Schema(description = "Versión para If-Match en PUT/DELETE", example = "3")
+    private Long version;
 }
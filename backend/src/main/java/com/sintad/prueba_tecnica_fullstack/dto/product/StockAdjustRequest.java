@@ -0,0 +1,19 @@
+package com.sintad.prueba_tecnica_fullstack.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ajuste relativo de stock: negativo para ventas, positivo para reposiciones")
+public class StockAdjustRequest {
+
+    @Schema(description = "Unidades a sumar (o restar si es negativo)", example = "-2")
+    @NotNull @Min(-1_000_000) @Max(1_000_000)
+    private Integer delta;
+}
@@ -0,0 +1,18 @@
+package com.sintad.prueba_tecnica_fullstack.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stock de un producto tras un ajuste")
+public class StockResponse {
+
+    @Schema(description = "ID del producto", example = "1")
+    private Long id;
+
+    @Schema(description = "Stock resultante", example = "8")
+    private Integer stock;
+}
@@ -29,4 +29,7 @@ public class UserResponse {
 
     @Schema(description = "Última fecha de actualización", example = "2025-09-30T15:30:00")
     private LocalDateTime updatedAt;
+
+    @Schema(description = "Versión para If-Match en PUT/DELETE", example = "3")
+    private Long version;
 }
@@ -3,12 +3,16 @@ package com.sintad.prueba_tecnica_fullstack.entity;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangeListener;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.SecondLevelCacheInvalidation;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.Operator;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -17,17 +21,22 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "categories")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Category.CACHE_REGION)
 public class Category {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -49,12 +58,24 @@ public class Category {
   @Column(name = "deleted_at")
   private LocalDateTime deletedAt;
 
+  @Version
+  @Column(columnDefinition = "bigint default 0")
+  private Long version;
+
   @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<Product> products;
 
   public static final Map<String, Operator> ALLOWED_FILTERS = Map.of(
       "name", Operator.LIKE,
       "description", Operator.LIKE,
-      "user_id", Operator.EQ,
+      "user.id", Operator.EQ,
       "user.fullName", Operator.LIKE);
+
+  public static final List<String> SEARCH_FIELDS = List.of("name", "description");
+
+  // Orden por cursor: sin createdAt, que admite nulos y el seek (campo > valor) los saltaría
+  public static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "user.fullName");
+
+  public static final String CACHE_REGION = "categories";
+  public static final String QUERY_CACHE_REGION = CACHE_REGION + SecondLevelCacheInvalidation.QUERY_REGION_SUFFIX;
 }
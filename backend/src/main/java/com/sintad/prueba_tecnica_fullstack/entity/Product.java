@@ -2,12 +2,17 @@ package com.sintad.prueba_tecnica_fullstack.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangeListener;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.Operator;
+import com.sintad.prueba_tecnica_fullstack.shared.stock.ProductDeletionListener;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -15,12 +20,14 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners({EntityChangeListener.class, ProductDeletionListener.class})
 @Table(name = "products")
 @Data
 @NoArgsConstructor
@@ -57,13 +64,25 @@ public class Product {
      @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    // Bloqueo optimista; el default rellena las filas existentes al añadir la columna
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     public static final Map<String, Operator> ALLOWED_FILTERS = Map.of(
             "name", Operator.LIKE,
             "price", Operator.LIKE,
             "stock", Operator.EQ,
-            "user_id", Operator.EQ,
+            "user.id", Operator.EQ,
             "description", Operator.LIKE,
             "category.name", Operator.LIKE,
             "user.username", Operator.LIKE
             );
+
+    public static final List<String> SEARCH_FIELDS = List.of("name", "description");
+
+    // Orden por cursor: solo escalares no nulos, el valor del último registro viaja en el cursor
+    // (createdAt admite nulos)
+    public static final Set<String> SORTABLE_FIELDS = Set.of(
+            "id", "name", "price", "stock", "category.name", "user.username");
 }
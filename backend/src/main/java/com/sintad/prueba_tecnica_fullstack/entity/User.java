@@ -3,28 +3,37 @@ package com.sintad.prueba_tecnica_fullstack.entity;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangeListener;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.SecondLevelCacheInvalidation;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.Operator;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -48,6 +57,10 @@ public class User {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(mappedBy = "user")
     private List<Category> categories;
 
@@ -58,4 +71,11 @@ public class User {
             "username", Operator.LIKE,
             "fullName", Operator.LIKE,
             "role", Operator.EQ);
+
+    // Nunca password: el valor de ordenamiento se codifica en el cursor de la respuesta. Tampoco
+    // createdAt, que admite nulos y el seek (campo > valor) los saltaría
+    public static final Set<String> SORTABLE_FIELDS = Set.of("id", "username", "fullName", "role");
+
+    public static final String CACHE_REGION = "users";
+    public static final String QUERY_CACHE_REGION = CACHE_REGION + SecondLevelCacheInvalidation.QUERY_REGION_SUFFIX;
 }
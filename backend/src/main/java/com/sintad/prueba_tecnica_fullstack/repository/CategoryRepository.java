@@ -1,21 +1,56 @@
 package com.sintad.prueba_tecnica_fullstack.repository;
 
 import com.sintad.prueba_tecnica_fullstack.entity.Category;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
+import com.sintad.prueba_tecnica_fullstack.shared.repository.BaseRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
-public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category> {
+public interface CategoryRepository extends BaseRepository<Category, Long> {
 
     Optional<Category> findByName(String name);
 
     boolean existsByName(String name);
 
+    // Cacheada: las altas y ediciones de productos la repiten en cada escritura
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = Category.QUERY_CACHE_REGION)})
     Optional<Category> findByIdAndDeletedAtIsNull(Long id);
 
+    // Validador de GET /{id}: permite responder 304 sin cargar la categoría
+    @Query("select new com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState(c.version, "
+            + "coalesce(c.updatedAt, c.createdAt)) from Category c where c.id = :id")
+    Optional<ResourceState> findStateById(@Param("id") Long id);
+
     boolean existsByNameIgnoreCaseAndDeletedAtIsNull(String name);
 
     boolean existsByNameIgnoreCaseAndDeletedAtIsNullAndIdNot(String name, Long id);
 
+    @Query("select c.id from Category c where c.id in :ids and c.deletedAt is null")
+    Set<Long> findActiveIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.id, c.name from Category c where c.deletedAt is null")
+    List<Object[]> findActiveIdsAndNames();
+
+    // Las lecturas que aún cargan entidades (por id y por cursor) traen user, usado por
+    // CategoryResponse, en la misma consulta; los listados paginados usan ResponseProjections
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Category> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    <S extends Category, R> R findBy(Specification<Category> spec, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction);
 }
@@ -1,13 +1,22 @@
 package com.sintad.prueba_tecnica_fullstack.repository;
 
 import com.sintad.prueba_tecnica_fullstack.entity.Product;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
+import com.sintad.prueba_tecnica_fullstack.shared.repository.BaseRepository;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends BaseRepository<Product, Long> {
 
     List<Product> findByNameContainingIgnoreCase(String name);
 
@@ -17,7 +26,33 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     List<Product> findByUser_Id(Long userId);
 
+    @EntityGraph(attributePaths = {"user", "category"})
     Optional<Product> findByIdAndDeletedAtIsNull(Long id);
 
+    // Validador de GET /{id}: permite responder 304 sin cargar el producto ni sus relaciones
+    @Query("select new com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState(p.version, "
+            + "coalesce(p.updatedAt, p.createdAt)) from Product p where p.id = :id and p.deletedAt is null")
+    Optional<ResourceState> findStateById(@Param("id") Long id);
+
+    /**
+     * Ajuste relativo en un solo UPDATE: la BD serializa los ajustes concurrentes sobre la fila y la
+     * condición impide dejar stock negativo. Devuelve 0 si el producto no existe o no alcanza el stock.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock + :delta, p.updatedAt = :now, p.version = p.version + 1 "
+            + "where p.id = :id and p.deletedAt is null and p.stock + :delta >= 0")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    @Query("select p.stock from Product p where p.id = :id and p.deletedAt is null")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
     boolean existsByNameAndDeletedAtIsNull(String name);
+
+    List<Product> findByIdInAndDeletedAtIsNull(Collection<Long> ids);
+
+    // La paginación por cursor aún carga entidades: trae user y category (usados por
+    // ProductResponse) en la misma consulta; los listados paginados usan ResponseProjections
+    @Override
+    @EntityGraph(attributePaths = {"user", "category"})
+    <S extends Product, R> R findBy(Specification<Product> spec, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction);
 }
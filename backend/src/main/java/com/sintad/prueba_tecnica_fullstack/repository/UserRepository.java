@@ -1,15 +1,25 @@
 package com.sintad.prueba_tecnica_fullstack.repository;
 
 import com.sintad.prueba_tecnica_fullstack.entity.User;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import com.sintad.prueba_tecnica_fullstack.shared.repository.BaseRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends BaseRepository<User, Long> {
 
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)})
     Optional<User> findByIdAndDeletedAtIsNull(Long id);
 
+    // Cacheada: se resuelve el usuario autenticado en cada escritura
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)})
     Optional<User> findByUsernameAndDeletedAtIsNull(String username);
 
     boolean existsByUsernameAndDeletedAtIsNull(String username);
@@ -18,4 +28,8 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     boolean existsByUsername(String username);
 
+    // Re-hash tras el login: no es un cambio visible, así que no toca updatedAt
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username and u.deletedAt is null")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
 }
@@ -0,0 +1,123 @@
+package com.sintad.prueba_tecnica_fullstack.repository.projection;
+
+import com.sintad.prueba_tecnica_fullstack.dto.category.CategoryResponse;
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductResponse;
+import com.sintad.prueba_tecnica_fullstack.dto.user.UserResponse;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.shared.repository.TupleProjection;
+import com.sintad.prueba_tecnica_fullstack.shared.util.CriteriaUtil;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Proyecciones de los listados: seleccionan solo las columnas de cada {@code *Response}.
+ * Las relaciones son obligatorias (nullable = false), así que el INNER JOIN comparte
+ * el join de los filtros sobre la misma relación.
+ */
+public final class ResponseProjections {
+
+    public static final TupleProjection<Product, ProductResponse> PRODUCT = new TupleProjection<>() {
+        @Override
+        public List<Selection<?>> select(Root<Product> root, CriteriaBuilder cb) {
+            Join<?, ?> user = CriteriaUtil.joinOnce(root, "user", JoinType.INNER);
+            Join<?, ?> category = CriteriaUtil.joinOnce(root, "category", JoinType.INNER);
+            return List.of(
+                    root.get("id").alias("id"),
+                    root.get("name").alias("name"),
+                    root.get("description").alias("description"),
+                    root.get("price").alias("price"),
+                    root.get("stock").alias("stock"),
+                    category.get("id").alias("categoryId"),
+                    category.get("name").alias("categoryName"),
+                    user.get("id").alias("userId"),
+                    user.get("fullName").alias("userName"),
+                    root.get("createdAt").alias("createdAt"),
+                    root.get("version").alias("version"));
+        }
+
+        @Override
+        public ProductResponse map(Tuple tuple) {
+            return ProductResponse.builder()
+                    .id(tuple.get("id", Long.class))
+                    .name(tuple.get("name", String.class))
+                    .description(tuple.get("description", String.class))
+                    .price(tuple.get("price", BigDecimal.class))
+                    .stock(tuple.get("stock", Integer.class))
+                    .categoryId(tuple.get("categoryId", Long.class))
+                    .categoryName(tuple.get("categoryName", String.class))
+                    .userId(tuple.get("userId", Long.class))
+                    .userName(tuple.get("userName", String.class))
+                    .createdAt(tuple.get("createdAt", LocalDateTime.class))
+                    .version(tuple.get("version", Long.class))
+                    .build();
+        }
+    };
+
+    public static final TupleProjection<Category, CategoryResponse> CATEGORY = new TupleProjection<>() {
+        @Override
+        public List<Selection<?>> select(Root<Category> root, CriteriaBuilder cb) {
+            Join<?, ?> user = CriteriaUtil.joinOnce(root, "user", JoinType.INNER);
+            return List.of(
+                    root.get("id").alias("id"),
+                    root.get("name").alias("name"),
+                    root.get("description").alias("description"),
+                    user.get("id").alias("userId"),
+                    user.get("fullName").alias("userName"),
+                    root.get("createdAt").alias("createdAt"),
+                    root.get("version").alias("version"));
+        }
+
+        @Override
+        public CategoryResponse map(Tuple tuple) {
+            return CategoryResponse.builder()
+                    .id(tuple.get("id", Long.class))
+                    .name(tuple.get("name", String.class))
+                    .description(tuple.get("description", String.class))
+                    .userId(tuple.get("userId", Long.class))
+                    .userName(tuple.get("userName", String.class))
+                    .createdAt(tuple.get("createdAt", LocalDateTime.class))
+                    .version(tuple.get("version", Long.class))
+                    .build();
+        }
+    };
+
+    public static final TupleProjection<User, UserResponse> USER = new TupleProjection<>() {
+        @Override
+        public List<Selection<?>> select(Root<User> root, CriteriaBuilder cb) {
+            return List.of(
+                    root.get("id").alias("id"),
+                    root.get("fullName").alias("fullName"),
+                    root.get("username").alias("username"),
+                    root.get("role").alias("role"),
+                    root.get("createdAt").alias("createdAt"),
+                    root.get("updatedAt").alias("updatedAt"),
+                    root.get("version").alias("version"));
+        }
+
+        @Override
+        public UserResponse map(Tuple tuple) {
+            return UserResponse.builder()
+                    .id(tuple.get("id", Long.class))
+                    .fullName(tuple.get("fullName", String.class))
+                    .username(tuple.get("username", String.class))
+                    .role(tuple.get("role", String.class))
+                    .createdAt(tuple.get("createdAt", LocalDateTime.class))
+                    .updatedAt(tuple.get("updatedAt", LocalDateTime.class))
+                    .version(tuple.get("version", Long.class))
+                    .build();
+        }
+    };
+
+    private ResponseProjections() {
+    }
+}
@@ -1,28 +1,59 @@
 package com.sintad.prueba_tecnica_fullstack.security;
 
-import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
+        PrincipalCache.Snapshot user = principalCache.get(username, key -> userRepository.findByUsername(key)
+                .filter(u -> u.getDeletedAt() == null)
+                .map(u -> new PrincipalCache.Snapshot(u.getUsername(), u.getPassword(), u.getRole()))
+                .orElse(null));
+        if (user == null) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
 
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole())
+                .withUsername(user.username())
+                .password(user.password())
+                .roles(user.role())
+                .build();
+    }
+
+    /**
+     * Lo invoca Spring Security tras un login correcto cuyo hash tiene un coste menor al
+     * configurado. Es una mejora oportunista: si falla, el login sigue siendo válido.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        try {
+            if (userRepository.updatePasswordByUsername(user.getUsername(), newPassword) == 0) return user;
+        } catch (DataAccessException e) {
+            log.warn("No se pudo re-hashear la contraseña de {}", user.getUsername(), e);
+            return user;
+        }
+        principalCache.evictAfterCommit(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
                 .build();
     }
 }
@@ -1,12 +1,15 @@
 package com.sintad.prueba_tecnica_fullstack.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -15,11 +18,28 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocations tokenRevocations;
     private final CustomUserDetailsService userDetailsService;
+    private final boolean statelessAuth;
+
+    /**
+     * @param statelessAuth si es {@code true}, los tokens con id de usuario se autentican solo con
+     *                      sus claims, sin consultar la BD; los cambios de credenciales se aplican
+     *                      revocando los tokens en {@link TokenRevocations}. Desactivado por defecto:
+     *                      sin el bus JDBC la lista de revocación solo vive en memoria
+     */
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+                                   TokenRevocations tokenRevocations,
+                                   CustomUserDetailsService userDetailsService,
+                                   @Value("${app.security.stateless-auth:false}") boolean statelessAuth) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocations = tokenRevocations;
+        this.userDetailsService = userDetailsService;
+        this.statelessAuth = statelessAuth;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -47,10 +67,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        String username;
+        final Claims claims;
 
+        // Único parseo del token por petición (y solo en su primer uso): firma y expiración se verifican aquí
         try {
-            username = jwtUtil.extractUsername(jwt);
+            claims = verifiedTokenCache.verify(jwt);
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
@@ -58,7 +79,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (tokenRevocations.isRevoked(claims)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Token revocado\",\"message\":\"Inicie sesión nuevamente\"}");
+            return;
+        }
+        request.setAttribute(JwtUtil.CLAIMS_ATTRIBUTE, claims);
+
+        String username = claims.getSubject();
+
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && statelessAuth && claims.get(JwtUtil.USER_ID_CLAIM) != null) {
+            authenticate(request, fromClaims(username, claims));
+        } else if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Tokens sin id de usuario (emitidos antes de incluirlo) siguen validándose contra la BD
             UserDetails userDetails;
             try {
                 userDetails = userDetailsService.loadUserByUsername(username);
@@ -69,31 +104,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            try {
-                if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                    response.setContentType("application/json");
-                    response.getWriter().write("{\"error\":\"Token inválido\",\"message\":\"Validación fallida\"}");
-                    return;
-                }
-            } catch (Exception e) {
+            if (username.equals(userDetails.getUsername())) {
+                authenticate(request, userDetails);
+            } else {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json");
-                response.getWriter().write("{\"error\":\"Token inválido\",\"message\":\"" + e.getMessage() + "\"}");
+                response.getWriter().write("{\"error\":\"Token inválido\",\"message\":\"Validación fallida\"}");
                 return;
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static UserDetails fromClaims(String username, Claims claims) {
+        return User.withUsername(username)
+                .password("")
+                .authorities(new SimpleGrantedAuthority("ROLE_" + claims.get(JwtUtil.ROLE_CLAIM, String.class)))
+                .build();
+    }
+
+    private static void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
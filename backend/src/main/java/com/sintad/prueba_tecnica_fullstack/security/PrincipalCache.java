@@ -0,0 +1,82 @@
+package com.sintad.prueba_tecnica_fullstack.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InvalidationBus;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InvalidationHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Datos del usuario autenticado por username durante un TTL corto, para no consultar la BD
+ * en cada petición con JWT. Al confirmar un cambio de rol o una baja se desaloja aquí y se avisa
+ * a las demás instancias por el {@link InvalidationBus}; el TTL solo acota un aviso perdido.
+ */
+@Component
+public class PrincipalCache {
+
+    public static final String NAME = "principals";
+
+    /** Copia inmutable: Spring Security borra la contraseña del {@code UserDetails} tras el login. */
+    public record Snapshot(String username, String password, String role) {
+    }
+
+    private final Cache<String, Snapshot> principals;
+    private final InvalidationBus bus;
+
+    public PrincipalCache(@Value("${app.security.principal-cache.ttl:30s}") Duration ttl,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                          MeterRegistry meterRegistry,
+                          InvalidationBus bus) {
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, NAME);
+        this.bus = bus;
+        bus.subscribe(NAME, new InvalidationHandler() {
+            @Override
+            public void invalidate(String username) {
+                principals.invalidate(username);
+            }
+
+            @Override
+            public void invalidateAll() {
+                principals.invalidateAll();
+            }
+        });
+    }
+
+    /** El loader puede devolver {@code null} (usuario inexistente o dado de baja); no se cachea. */
+    public Snapshot get(String username, Function<String, Snapshot> loader) {
+        return principals.get(username, loader);
+    }
+
+    /**
+     * Desaloja tras el commit para que una lectura concurrente no vuelva a cachear el dato anterior.
+     * El aviso a los demás nodos se publica en la transacción actual y les llega al confirmarse.
+     */
+    public void evictAfterCommit(String... usernames) {
+        List<String> keys = List.of(usernames);
+        keys.forEach(username -> bus.publish(NAME, username));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            principals.invalidateAll(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principals.invalidateAll(keys);
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.sintad.prueba_tecnica_fullstack.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InvalidationBus;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InvalidationHandler;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lista de revocación compacta: por usuario, el instante antes del cual sus tokens dejan de
+ * valer. Una entrada solo hace falta mientras pueda existir un token anterior sin expirar,
+ * así que se descarta tras {@link JwtUtil#TOKEN_TTL}. Las revocaciones se replican al resto de
+ * instancias como {@code userId:instante} por el {@link InvalidationBus}.
+ * <p>
+ * Si se llena, la lista falla cerrada: la revocación expulsada sube un corte global y todo token
+ * emitido hasta ese instante se rechaza, de cualquier usuario, en lugar de volver a ser válido.
+ */
+@Component
+public class TokenRevocations {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocations.class);
+
+    public static final String REGION = "token-revocations";
+
+    private final Cache<Long, Long> revokedBefore;
+    private final AtomicLong evictedBefore = new AtomicLong(Long.MIN_VALUE);
+    private final InvalidationBus bus;
+
+    public TokenRevocations(@Value("${app.security.revocations.max-size:100000}") long maxSize,
+                            InvalidationBus bus) {
+        this.revokedBefore = Caffeine.newBuilder()
+                .expireAfterWrite(JwtUtil.TOKEN_TTL)
+                .maximumSize(maxSize)
+                .evictionListener((Long userId, Long revokedAt, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) evict(userId, revokedAt);
+                })
+                // Mantenimiento en el hilo que revoca: el corte queda fijado antes de la siguiente consulta
+                .executor(Runnable::run)
+                .build();
+        this.bus = bus;
+        // Una instancia recién arrancada debe conocer las revocaciones de tokens que aún no expiraron
+        bus.subscribe(REGION, new InvalidationHandler() {
+            @Override
+            public void invalidate(String key) {
+                int separator = key.indexOf(':');
+                apply(Long.valueOf(key.substring(0, separator)), Long.parseLong(key.substring(separator + 1)));
+            }
+
+            @Override
+            public void invalidateAll() {
+                // El bus retiene los mensajes más tiempo que la vida de un token: no debería ocurrir
+                log.warn("Se perdieron revocaciones de tokens de otras instancias");
+            }
+        }, JwtUtil.TOKEN_TTL);
+    }
+
+    /** Invalida todos los tokens emitidos hasta ahora para el usuario, también en las demás instancias. */
+    public void revokeAll(Long userId) {
+        long now = System.currentTimeMillis();
+        apply(userId, now);
+        bus.publish(REGION, userId + ":" + now);
+    }
+
+    private void apply(Long userId, long revokedAt) {
+        revokedBefore.asMap().merge(userId, revokedAt, Math::max);
+    }
+
+    private void evict(Long userId, long revokedAt) {
+        if (evictedBefore.getAndAccumulate(revokedAt, Math::max) < revokedAt) {
+            log.warn("Lista de revocaciones llena (usuario {}): se rechazan los tokens emitidos hasta {}",
+                    userId, revokedAt);
+        }
+    }
+
+    /**
+     * Revoca al confirmarse la transacción actual: hasta entonces la BD aún acepta las
+     * credenciales anteriores y un token emitido en ese intervalo también debe caer. El aviso
+     * a los demás nodos viaja en la propia transacción, con el instante tomado justo antes del
+     * commit; en este nodo se aplica el instante posterior al commit.
+     */
+    public void revokeAllAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revokeAll(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                bus.publish(REGION, userId + ":" + System.currentTimeMillis());
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(userId, System.currentTimeMillis());
+            }
+        });
+    }
+
+    /**
+     * {@code iat} tiene precisión de segundos: un token emitido en el mismo segundo que la
+     * revocación también se rechaza, y el usuario solo debe volver a iniciar sesión.
+     */
+    public boolean isRevoked(Claims claims) {
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        if (userId == null || claims.getIssuedAt() == null) return false;
+        long issuedAt = claims.getIssuedAt().getTime();
+        if (issuedAt <= evictedBefore.get()) return true;
+        Long revokedAt = revokedBefore.getIfPresent(userId);
+        return revokedAt != null && issuedAt <= revokedAt;
+    }
+}
@@ -0,0 +1,87 @@
+package com.sintad.prueba_tecnica_fullstack.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims ya verificados por SHA-256 del token, hasta su {@code exp}: un cliente reutiliza
+ * el mismo token durante una hora y solo el primer uso paga el parseo y la verificación
+ * HMAC. Caffeine no bloquea en lecturas, así que no es un punto de contención entre hilos.
+ * Los tokens inválidos no se cachean.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String NAME = "verified-tokens";
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, Claims> tokens;
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${app.security.token-cache.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this(jwtUtil, maxSize, meterRegistry, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(JwtUtil jwtUtil, long maxSize, MeterRegistry meterRegistry, Ticker ticker) {
+        this.jwtUtil = jwtUtil;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpires())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, NAME);
+    }
+
+    /**
+     * @throws io.jsonwebtoken.JwtException si el token no es válido o expiró
+     */
+    public Claims verify(String token) {
+        return tokens.get(digest(token), key -> jwtUtil.parseClaims(token));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static final class UntilTokenExpires implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) return 0;
+            long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -6,16 +6,25 @@ import com.sintad.prueba_tecnica_fullstack.entity.Category;
 import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
 import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.projection.ResponseProjections;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.ICategoryService;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.ConflictException;
 import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.KeysetSpecs;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -26,6 +35,7 @@ public class CategoryServiceImpl implements ICategoryService {
     private final UserRepository userRepository;
 
     @Override
+    @Transactional
     public CategoryResponse create(CategoryRequest request) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -47,6 +57,7 @@ public class CategoryServiceImpl implements ICategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CategoryResponse getById(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Categoría no encontrada con ID: " + id));
@@ -54,9 +65,19 @@ public class CategoryServiceImpl implements ICategoryService {
     }
 
     @Override
-    public CategoryResponse update(Long id, CategoryRequest request) {
+    @Transactional(readOnly = true)
+    public Optional<ResourceState> findState(Long id) {
+        return categoryRepository.findStateById(id);
+    }
+
+    @Override
+    @Transactional
+    public CategoryResponse update(Long id, CategoryRequest request, Long expectedVersion) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Categoría no encontrada con ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(category.getVersion())) {
+            throw ConflictException.staleVersion(toResponse(category));
+        }
 
         if (request.getName() != null &&
                 categoryRepository.existsByNameIgnoreCaseAndDeletedAtIsNullAndIdNot(request.getName(), id)) {
@@ -68,20 +89,47 @@ public class CategoryServiceImpl implements ICategoryService {
 
         category.setUpdatedAt(LocalDateTime.now());
 
-        return toResponse(categoryRepository.save(category));
+        // El flush incrementa la versión antes de armar la respuesta
+        return toResponse(categoryRepository.saveAndFlush(category));
     }
 
     @Override
-    public void delete(Long id) {
+    @Transactional
+    public void delete(Long id, Long expectedVersion) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Categoría no encontrada con ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(category.getVersion())) {
+            throw ConflictException.staleVersion(toResponse(category));
+        }
 
         categoryRepository.delete(category);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<CategoryResponse> search(Specification<?> spec, Pageable pageable) {
-        return categoryRepository.findAll((Specification<Category>) spec, pageable).map(this::toResponse);
+        return categoryRepository.findAll((Specification<Category>) spec, pageable, ResponseProjections.CATEGORY);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CategoryResponse> searchSlice(Specification<?> spec, Pageable pageable) {
+        return categoryRepository.findSlice((Specification<Category>) spec, pageable, ResponseProjections.CATEGORY);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count(Specification<?> spec) {
+        return categoryRepository.count((Specification<Category>) spec);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<CategoryResponse> scroll(Specification<?> spec, CursorRequest request) {
+        Specification<Category> finalSpec = ((Specification<Category>) spec).and(KeysetSpecs.after(request));
+        List<Category> rows = categoryRepository.findBy(finalSpec,
+                q -> q.sortBy(request.sort()).limit(request.size() + 1).all());
+        return CursorSlice.of(rows, request, this::toResponse);
     }
 
     private CategoryResponse toResponse(Category category) {
@@ -92,6 +140,7 @@ public class CategoryServiceImpl implements ICategoryService {
                 .userId(category.getUser() != null ? category.getUser().getId() : null)
                 .userName(category.getUser() != null ? category.getUser().getFullName() : null)
                 .createdAt(category.getCreatedAt())
+                .version(category.getVersion())
                 .build();
     }
 
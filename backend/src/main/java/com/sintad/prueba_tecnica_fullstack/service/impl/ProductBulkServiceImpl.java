@@ -0,0 +1,381 @@
+package com.sintad.prueba_tecnica_fullstack.service.impl;
+
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductBulkUpdateRequest;
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductImportRow;
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductRequest;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.ProductRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.service.interfaces.IProductBulkService;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangedEvent;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.BulkResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.ImportResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
+import com.sintad.prueba_tecnica_fullstack.shared.export.ExportFormat;
+import com.sintad.prueba_tecnica_fullstack.shared.export.StreamingRowReader;
+import com.sintad.prueba_tecnica_fullstack.shared.stock.StockLedger;
+import com.sintad.prueba_tecnica_fullstack.shared.validation.OnUpdate;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Alta y actualización masiva de productos. {@code Product.id} es IDENTITY y Hibernate
+ * no agrupa esos INSERT, así que las altas van por JDBC en lotes; las actualizaciones
+ * sí usan JPA con el tamaño de lote JDBC de la sesión. Las importaciones leen el archivo
+ * en streaming y confirman cada lote en su propia transacción.
+ */
+@Service
+public class ProductBulkServiceImpl implements IProductBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBulkServiceImpl.class);
+
+    private static final String INSERT_SQL = "insert into products "
+            + "(name, description, price, stock, user_id, category_id, created_at) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final StreamingRowReader rowReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<StockLedger> stockLedger;
+    private final int batchSize;
+    private final int maxItems;
+    private final int maxImportErrors;
+
+    public ProductBulkServiceImpl(ProductRepository productRepository,
+                                  CategoryRepository categoryRepository,
+                                  UserRepository userRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  EntityManager entityManager,
+                                  Validator validator,
+                                  PlatformTransactionManager transactionManager,
+                                  StreamingRowReader rowReader,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ObjectProvider<StockLedger> stockLedger,
+                                  @Value("${app.products.bulk.batch-size:500}") int batchSize,
+                                  @Value("${app.products.bulk.max-items:5000}") int maxItems,
+                                  @Value("${app.products.import.max-errors:1000}") int maxImportErrors) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rowReader = rowReader;
+        this.eventPublisher = eventPublisher;
+        this.stockLedger = stockLedger;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+        this.maxImportErrors = maxImportErrors;
+    }
+
+    @Override
+    @Transactional
+    public BulkResponse createAll(List<ProductRequest> requests) {
+        checkSize(requests);
+        User user = currentUser();
+
+        BulkResponse.Item[] results = new BulkResponse.Item[requests.size()];
+        List<Integer> valid = validate(requests, results);
+        List<Integer> insertable = withActiveCategories(requests, valid, results);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (List<Integer> chunk : partition(insertable)) {
+            List<Long> ids = insert(chunk.stream().map(requests::get).toList(), user.getId(), now);
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunk.get(i)] = success(chunk.get(i), BulkResponse.Status.CREATED, ids.get(i));
+            }
+        }
+
+        return BulkResponse.of(Arrays.asList(results));
+    }
+
+    @Override
+    @Transactional
+    public BulkResponse updateAll(List<ProductBulkUpdateRequest> requests) {
+        checkSize(requests);
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        BulkResponse.Item[] results = new BulkResponse.Item[requests.size()];
+        List<Integer> valid = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i : validate(requests, results, OnUpdate.class)) {
+            if (seen.add(requests.get(i).getId())) {
+                valid.add(i);
+            } else {
+                results[i] = error(i, "id", "ID repetido en la petición: " + requests.get(i).getId());
+            }
+        }
+        List<Integer> updatable = withActiveCategories(requests, valid, results);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Integer> chunk : partition(updatable)) {
+            Map<Long, Product> products = new HashMap<>();
+            productRepository.findByIdInAndDeletedAtIsNull(chunk.stream().map(i -> requests.get(i).getId()).toList())
+                    .forEach(p -> products.put(p.getId(), p));
+            // El stock escrito sustituye a los ajustes aún sin volcar, no se suma a ellos
+            List<Long> restocked = chunk.stream().map(requests::get)
+                    .filter(request -> request.getStock() != null && products.containsKey(request.getId()))
+                    .map(ProductBulkUpdateRequest::getId)
+                    .toList();
+            if (!restocked.isEmpty()) stockLedger.ifAvailable(ledger -> ledger.replace(restocked));
+
+            for (int i : chunk) {
+                ProductBulkUpdateRequest request = requests.get(i);
+                Product product = products.get(request.getId());
+                if (product == null) {
+                    results[i] = error(i, "id", "Producto no encontrado con ID: " + request.getId());
+                    continue;
+                }
+
+                Optional.ofNullable(request.getName()).ifPresent(product::setName);
+                Optional.ofNullable(request.getDescription()).ifPresent(product::setDescription);
+                Optional.ofNullable(request.getPrice()).ifPresent(product::setPrice);
+                Optional.ofNullable(request.getStock()).ifPresent(product::setStock);
+                Optional.ofNullable(request.getCategoryId())
+                        .ifPresent(id -> product.setCategory(entityManager.getReference(Category.class, id)));
+                product.setUpdatedAt(now);
+
+                results[i] = success(i, BulkResponse.Status.UPDATED, product.getId());
+            }
+
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        return BulkResponse.of(Arrays.asList(results));
+    }
+
+    /**
+     * Sin transacción global: cada lote de {@code batchSize} filas válidas se inserta y
+     * confirma por separado, y la lectura no avanza mientras el lote se escribe. En memoria
+     * solo quedan el lote en curso, las categorías y como máximo {@code maxImportErrors} errores.
+     */
+    @Override
+    public ImportResponse importFrom(InputStream in, ExportFormat format) {
+        Long userId = currentUser().getId();
+        CategoryLookup categories = loadCategories();
+        ImportResponse report = ImportResponse.builder().errors(new ArrayList<>()).build();
+        List<ProductImportRow> chunk = new ArrayList<>(batchSize);
+        List<Long> chunkRows = new ArrayList<>(batchSize);
+
+        long total = rowReader.read(in, format, ProductImportRow.class, row -> {
+            Map<String, String> errors = row.isValid()
+                    ? check(row.value(), categories)
+                    : Map.of("row", row.error());
+            if (!errors.isEmpty()) {
+                reject(report, row.number(), errors);
+                return;
+            }
+            chunk.add(row.value());
+            chunkRows.add(row.number());
+            if (chunk.size() == batchSize) {
+                commit(chunk, chunkRows, userId, report);
+            }
+        });
+        commit(chunk, chunkRows, userId, report);
+
+        report.setTotal(total);
+        log.info("Importación de productos terminada: {} filas, {} guardadas, {} rechazadas",
+                total, report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private Map<String, String> check(ProductImportRow row, CategoryLookup categories) {
+        Long categoryId = categories.resolve(row);
+        if (categoryId == null) {
+            String reference = row.getCategoryId() != null ? "ID: " + row.getCategoryId() : row.getCategoryName();
+            return Map.of("categoryId", "Categoría no encontrada" + (reference != null ? " con " + reference : ""));
+        }
+        row.setCategoryId(categoryId);
+
+        Map<String, String> errors = new TreeMap<>();
+        validator.validate(row).forEach(v -> errors.putIfAbsent(v.getPropertyPath().toString(), v.getMessage()));
+        return errors;
+    }
+
+    private void commit(List<ProductImportRow> chunk, List<Long> rows, Long userId, ImportResponse report) {
+        if (chunk.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    insert(chunk, userId, Timestamp.valueOf(LocalDateTime.now())));
+            report.setImported(report.getImported() + chunk.size());
+            report.setChunks(report.getChunks() + 1);
+        } catch (DataAccessException e) {
+            log.warn("Lote de importación rechazado (filas {}-{}): {}", rows.get(0), rows.get(rows.size() - 1),
+                    e.getMostSpecificCause().getMessage());
+            rows.forEach(row -> reject(report, row, Map.of("row", "No se pudo guardar el lote de esta fila")));
+        }
+        log.debug("Importación de productos: {} filas guardadas, {} rechazadas", report.getImported(), report.getFailed());
+        chunk.clear();
+        rows.clear();
+    }
+
+    private void reject(ImportResponse report, long row, Map<String, String> errors) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxImportErrors) {
+            report.getErrors().add(ImportResponse.RowError.builder().row(row).errors(errors).build());
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    /** Categorías activas por ID y por nombre (sin distinguir mayúsculas), cargadas una sola vez. */
+    private CategoryLookup loadCategories() {
+        Set<Long> ids = new HashSet<>();
+        Map<String, Long> byName = new HashMap<>();
+        for (Object[] category : categoryRepository.findActiveIdsAndNames()) {
+            ids.add((Long) category[0]);
+            byName.put(((String) category[1]).trim().toLowerCase(), (Long) category[0]);
+        }
+        return new CategoryLookup(ids, byName);
+    }
+
+    private record CategoryLookup(Set<Long> ids, Map<String, Long> byName) {
+
+        Long resolve(ProductImportRow row) {
+            if (row.getCategoryId() != null) {
+                return ids.contains(row.getCategoryId()) ? row.getCategoryId() : null;
+            }
+            return row.getCategoryName() != null ? byName.get(row.getCategoryName().trim().toLowerCase()) : null;
+        }
+    }
+
+    private User currentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByUsernameAndDeletedAtIsNull(username)
+                .orElseThrow(() -> new NotFoundException("Usuario autenticado no encontrado"));
+    }
+
+    /** Un INSERT por lote JDBC; devuelve los IDs generados en el orden recibido. */
+    private List<Long> insert(List<? extends ProductRequest> rows, Long userId, Timestamp now) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProductRequest request = rows.get(i);
+                        ps.setString(1, request.getName());
+                        ps.setString(2, request.getDescription());
+                        ps.setBigDecimal(3, request.getPrice());
+                        ps.setInt(4, request.getStock());
+                        ps.setLong(5, userId);
+                        ps.setLong(6, request.getCategoryId());
+                        ps.setTimestamp(7, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+        // El INSERT por JDBC no pasa por el listener JPA de la entidad
+        eventPublisher.publishEvent(new EntityChangedEvent(Product.class));
+
+        return keys.getKeyList().stream()
+                .map(key -> ((Number) key.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private void checkSize(List<?> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("La lista de productos no puede estar vacía");
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("Máximo " + maxItems + " productos por petición");
+        }
+    }
+
+    private <R> List<Integer> validate(List<R> requests, BulkResponse.Item[] results, Class<?>... groups) {
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            R request = requests.get(i);
+            if (request == null) {
+                results[i] = error(i, "item", "Elemento nulo");
+                continue;
+            }
+            Set<ConstraintViolation<R>> violations = validator.validate(request, groups);
+            if (violations.isEmpty()) {
+                valid.add(i);
+            } else {
+                Map<String, String> errors = new TreeMap<>();
+                violations.forEach(v -> errors.putIfAbsent(v.getPropertyPath().toString(), v.getMessage()));
+                results[i] = BulkResponse.Item.builder().index(i).status(BulkResponse.Status.ERROR).errors(errors).build();
+            }
+        }
+        return valid;
+    }
+
+    /** Una sola consulta {@code IN} para todas las categorías referenciadas. */
+    private List<Integer> withActiveCategories(List<? extends ProductRequest> requests, List<Integer> indexes,
+                                               BulkResponse.Item[] results) {
+        Function<Integer, Long> categoryOf = i -> requests.get(i).getCategoryId();
+        Set<Long> requested = new HashSet<>();
+        indexes.stream().map(categoryOf).filter(Objects::nonNull).forEach(requested::add);
+        Set<Long> active = requested.isEmpty() ? Set.of() : categoryRepository.findActiveIdsByIdIn(requested);
+
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : indexes) {
+            Long categoryId = categoryOf.apply(i);
+            if (categoryId == null || active.contains(categoryId)) {
+                accepted.add(i);
+            } else {
+                results[i] = error(i, "categoryId", "Categoría no encontrada con ID: " + categoryId);
+            }
+        }
+        return accepted;
+    }
+
+    private List<List<Integer>> partition(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += batchSize) {
+            chunks.add(indexes.subList(from, Math.min(from + batchSize, indexes.size())));
+        }
+        return chunks;
+    }
+
+    private static BulkResponse.Item success(int index, BulkResponse.Status status, Long id) {
+        return BulkResponse.Item.builder().index(index).status(status).id(id).build();
+    }
+
+    private static BulkResponse.Item error(int index, String field, String message) {
+        return BulkResponse.Item.builder()
+                .index(index)
+                .status(BulkResponse.Status.ERROR)
+                .errors(Map.of(field, message))
+                .build();
+    }
+}
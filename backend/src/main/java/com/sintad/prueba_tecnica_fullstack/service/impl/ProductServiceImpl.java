@@ -8,27 +8,63 @@ import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
 import com.sintad.prueba_tecnica_fullstack.repository.ProductRepository;
 import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.projection.ResponseProjections;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.IProductService;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangedEvent;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.ConflictException;
 import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.KeysetSpecs;
+import com.sintad.prueba_tecnica_fullstack.shared.stock.StockLedger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 public class ProductServiceImpl implements IProductService {
 
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<StockLedger> stockLedger;
+
+    public ProductServiceImpl(ProductRepository productRepository,
+                              UserRepository userRepository,
+                              CategoryRepository categoryRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              ObjectProvider<StockLedger> stockLedger) {
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockLedger = stockLedger;
+    }
 
     @Override
+    @Transactional
     public ProductResponse create(ProductRequest request) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userRepository.findByUsernameAndDeletedAtIsNull(username)
@@ -51,6 +87,7 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProductResponse getById(Long id) {
         Product product = productRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
@@ -58,14 +95,28 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Override
-    public ProductResponse update(Long id, ProductRequest request) {
+    @Transactional(readOnly = true)
+    public Optional<ResourceState> findState(Long id) {
+        return productRepository.findStateById(id);
+    }
+
+    @Override
+    @Transactional
+    public ProductResponse update(Long id, ProductRequest request, Long expectedVersion) {
         Product product = productRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw ConflictException.staleVersion(toResponse(product));
+        }
 
         Optional.ofNullable(request.getName()).ifPresent(product::setName);
         Optional.ofNullable(request.getDescription()).ifPresent(product::setDescription);
         Optional.ofNullable(request.getPrice()).ifPresent(product::setPrice);
-        Optional.ofNullable(request.getStock()).ifPresent(product::setStock);
+        Optional.ofNullable(request.getStock()).ifPresent(stock -> {
+            // El valor escrito sustituye a los ajustes aún sin volcar, no se suma a ellos
+            stockLedger.ifAvailable(ledger -> ledger.replace(id));
+            product.setStock(stock);
+        });
 
         Optional.ofNullable(request.getCategoryId()).ifPresent(categoryId -> {
             Category category = categoryRepository.findByIdAndDeletedAtIsNull(categoryId)
@@ -75,22 +126,81 @@ public class ProductServiceImpl implements IProductService {
 
         product.setUpdatedAt(LocalDateTime.now());
 
-        return toResponse(productRepository.save(product));
+        // El flush incrementa la versión antes de armar la respuesta
+        return toResponse(productRepository.saveAndFlush(product));
     }
 
     @Override
-    public void delete(Long id) {
+    @Transactional
+    public void delete(Long id, Long expectedVersion) {
         Product product = productRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw ConflictException.staleVersion(toResponse(product));
+        }
 
         product.setDeletedAt(LocalDateTime.now());
         productRepository.save(product);
     }
 
+    /**
+     * Con {@link StockLedger} activo el ajuste se resuelve en memoria, sin abrir transacción. Si no,
+     * un UPDATE sin cargar la entidad ni bloquear antes de escribir; la lectura posterior ve el valor
+     * propio porque el UPDATE retiene el bloqueo de la fila hasta el commit.
+     */
+    @Override
+    public int adjustStock(Long id, int delta) {
+        StockLedger ledger = stockLedger.getIfAvailable();
+        if (ledger != null) {
+            return ledger.adjust(id, delta);
+        }
+        return transactionTemplate.execute(status -> {
+            if (productRepository.adjustStock(id, delta, LocalDateTime.now()) == 0) {
+                int available = productRepository.findStockById(id)
+                        .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+                throw new ConflictException("Stock insuficiente: disponible " + available + ", ajuste " + delta);
+            }
+            // El UPDATE JPQL no pasa por los listeners de la entidad
+            eventPublisher.publishEvent(new EntityChangedEvent(Product.class));
+            return productRepository.findStockById(id).orElseThrow();
+        });
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductResponse> search(Specification<?> spec, Pageable pageable) {
-        return productRepository.findAll((Specification<Product>) spec, pageable)
-                .map(this::toResponse);
+        return productRepository.findAll((Specification<Product>) spec, pageable, ResponseProjections.PRODUCT);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductResponse> searchSlice(Specification<?> spec, Pageable pageable) {
+        return productRepository.findSlice((Specification<Product>) spec, pageable, ResponseProjections.PRODUCT);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count(Specification<?> spec) {
+        return productRepository.count((Specification<Product>) spec);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<ProductResponse> scroll(Specification<?> spec, CursorRequest request) {
+        Specification<Product> finalSpec = ((Specification<Product>) spec).and(KeysetSpecs.after(request));
+        List<Product> rows = productRepository.findBy(finalSpec,
+                q -> q.sortBy(request.sort()).limit(request.size() + 1).all());
+        return CursorSlice.of(rows, request, this::toResponse);
+    }
+
+    /** La transacción mantiene abierto el cursor; PostgreSQL solo respeta el fetch size dentro de una. */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(Specification<?> spec, Sort sort, Consumer<ProductResponse> consumer) {
+        try (Stream<ProductResponse> rows = productRepository.stream((Specification<Product>) spec, sort,
+                ResponseProjections.PRODUCT, EXPORT_FETCH_SIZE)) {
+            rows.forEach(consumer);
+        }
     }
 
     private ProductResponse toResponse(Product product) {
@@ -105,6 +215,7 @@ public class ProductServiceImpl implements IProductService {
                 .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
                 .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
                 .createdAt(product.getCreatedAt())
+                .version(product.getVersion())
                 .build();
     }
 }
@@ -4,48 +4,77 @@ import com.sintad.prueba_tecnica_fullstack.dto.user.UserRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.user.UserResponse;
 import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.projection.ResponseProjections;
+import com.sintad.prueba_tecnica_fullstack.security.PrincipalCache;
+import com.sintad.prueba_tecnica_fullstack.security.TokenRevocations;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.IUserService;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.ConflictException;
 import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.KeysetSpecs;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 public class UserServiceImpl implements IUserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenRevocations tokenRevocations;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserServiceImpl(UserRepository userRepository,
+                           PasswordEncoder passwordEncoder,
+                           PrincipalCache principalCache,
+                           TokenRevocations tokenRevocations,
+                           PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.tokenRevocations = tokenRevocations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
+    // Sin @Transactional en create/update: el hash (cola de BCrypt incluida) va antes de abrir la
+    // transacción para no retener una conexión mientras tanto
     @Override
-    @Transactional
     public UserResponse create(UserRequest request) {
         if (request == null) throw new IllegalArgumentException("Request de usuario no puede ser nulo");
 
-        if (userRepository.existsByUsernameAndDeletedAtIsNull(request.getUsername())) {
-            throw new IllegalArgumentException("El username ya está en uso: " + request.getUsername());
-        }
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+        return transactionTemplate.execute(status -> {
+            if (userRepository.existsByUsernameAndDeletedAtIsNull(request.getUsername())) {
+                throw new IllegalArgumentException("El username ya está en uso: " + request.getUsername());
+            }
 
-        User user = User.builder()
-                .fullName(request.getFullName())
-                .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole())
-                .createdAt(LocalDateTime.now())
-                .build();
+            User user = User.builder()
+                    .fullName(request.getFullName())
+                    .username(request.getUsername())
+                    .password(passwordHash)
+                    .role(request.getRole())
+                    .createdAt(LocalDateTime.now())
+                    .build();
 
-        return toResponse(userRepository.save(user));
+            return toResponse(userRepository.save(user));
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponse getById(Long id) {
         User user = userRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado con ID: " + id));
@@ -53,51 +82,100 @@ public class UserServiceImpl implements IUserService {
     }
 
     @Override
-    @Transactional
-    public UserResponse update(Long id, UserRequest request) {
+    public UserResponse update(Long id, UserRequest request, Long expectedVersion) {
         if (request == null) throw new IllegalArgumentException("Request de usuario no puede ser nulo");
 
+        String passwordHash = Objects.nonNull(request.getPassword()) && !request.getPassword().isBlank()
+                ? passwordEncoder.encode(request.getPassword())
+                : null;
+        return transactionTemplate.execute(status -> update(id, request, passwordHash, expectedVersion));
+    }
+
+    private UserResponse update(Long id, UserRequest request, String passwordHash, Long expectedVersion) {
         User user = userRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado con ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw ConflictException.staleVersion(toResponse(user));
+        }
 
+        principalCache.evictAfterCommit(user.getUsername());
         Optional.ofNullable(request.getFullName()).ifPresent(user::setFullName);
 
+        // Los tokens llevan username y rol: si cambian (o cambia la contraseña) dejan de valer
+        boolean credentialsChanged = false;
         if (Objects.nonNull(request.getUsername()) && !request.getUsername().equals(user.getUsername())) {
             if (userRepository.existsByUsernameAndDeletedAtIsNull(request.getUsername())) {
                 throw new IllegalArgumentException("El username ya está en uso: " + request.getUsername());
             }
             user.setUsername(request.getUsername());
+            credentialsChanged = true;
+        }
+
+        if (passwordHash != null) {
+            user.setPassword(passwordHash);
+            credentialsChanged = true;
         }
 
-        if (Objects.nonNull(request.getPassword()) && !request.getPassword().isBlank()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+        if (Objects.nonNull(request.getRole()) && !request.getRole().equals(user.getRole())) {
+            user.setRole(request.getRole());
+            credentialsChanged = true;
         }
 
-        Optional.ofNullable(request.getRole()).ifPresent(user::setRole);
+        if (credentialsChanged) tokenRevocations.revokeAllAfterCommit(user.getId());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return toResponse(userRepository.save(user));
+        // El flush incrementa la versión antes de armar la respuesta
+        return toResponse(userRepository.saveAndFlush(user));
     }
 
     @Override
     @Transactional
-    public void delete(Long id) {
+    public void delete(Long id, Long expectedVersion) {
         User user = userRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado con ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw ConflictException.staleVersion(toResponse(user));
+        }
         user.setDeletedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.evictAfterCommit(user.getUsername());
+        tokenRevocations.revokeAllAfterCommit(user.getId());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<UserResponse> search(Specification<?> spec, Pageable pageable) {
+        return userRepository.findAll(activeUsers(spec), pageable, ResponseProjections.USER);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserResponse> searchSlice(Specification<?> spec, Pageable pageable) {
+        return userRepository.findSlice(activeUsers(spec), pageable, ResponseProjections.USER);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count(Specification<?> spec) {
+        return userRepository.count(activeUsers(spec));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<UserResponse> scroll(Specification<?> spec, CursorRequest request) {
+        Specification<User> finalSpec = activeUsers(spec).and(KeysetSpecs.after(request));
+        List<User> rows = userRepository.findBy(finalSpec,
+                q -> q.sortBy(request.sort()).limit(request.size() + 1).all());
+        return CursorSlice.of(rows, request, this::toResponse);
+    }
+
+    private Specification<User> activeUsers(Specification<?> spec) {
         @SuppressWarnings("unchecked")
         Specification<User> userSpec = (Specification<User>) spec;
 
         Specification<User> notDeleted = (root, query, cb) -> cb.isNull(root.get("deletedAt"));
 
-        Specification<User> finalSpec = (userSpec == null) ? notDeleted : notDeleted.and(userSpec);
-
-        return userRepository.findAll(finalSpec, pageable).map(this::toResponse);
+        return (userSpec == null) ? notDeleted : notDeleted.and(userSpec);
     }
 
     private UserResponse toResponse(User user) {
@@ -108,6 +186,7 @@ public class UserServiceImpl implements IUserService {
                 .role(user.getRole())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
+                .version(user.getVersion())
                 .build();
     }
 }
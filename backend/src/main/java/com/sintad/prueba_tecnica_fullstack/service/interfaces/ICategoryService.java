@@ -2,19 +2,35 @@ package com.sintad.prueba_tecnica_fullstack.service.interfaces;
 
 import com.sintad.prueba_tecnica_fullstack.dto.category.CategoryRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.category.CategoryResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Optional;
+
 public interface ICategoryService {
 
     CategoryResponse create(CategoryRequest request);
 
     CategoryResponse getById(Long id);
 
-    CategoryResponse update(Long id, CategoryRequest request);
+    /** Versión y fecha de última modificación de la categoría, sin cargarla; vacío si no existe. */
+    Optional<ResourceState> findState(Long id);
+
+    /** @param expectedVersion versión indicada en If-Match; {@code null} para no comprobarla */
+    CategoryResponse update(Long id, CategoryRequest request, Long expectedVersion);
 
-    void delete(Long id);
+    void delete(Long id, Long expectedVersion);
 
     Page<CategoryResponse> search(Specification<?> spec, Pageable pageable);
+
+    Slice<CategoryResponse> searchSlice(Specification<?> spec, Pageable pageable);
+
+    long count(Specification<?> spec);
+
+    CursorSlice<CategoryResponse> scroll(Specification<?> spec, CursorRequest request);
 }
@@ -0,0 +1,20 @@
+package com.sintad.prueba_tecnica_fullstack.service.interfaces;
+
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductBulkUpdateRequest;
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.BulkResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.ImportResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.export.ExportFormat;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface IProductBulkService {
+
+    BulkResponse createAll(List<ProductRequest> requests);
+
+    BulkResponse updateAll(List<ProductBulkUpdateRequest> requests);
+
+    /** Importa productos leyendo {@code in} fila a fila; los lotes confirmados no se revierten. */
+    ImportResponse importFrom(InputStream in, ExportFormat format);
+}
@@ -2,19 +2,43 @@ package com.sintad.prueba_tecnica_fullstack.service.interfaces;
 
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Optional;
+import java.util.function.Consumer;
+
 public interface IProductService {
 
     ProductResponse create(ProductRequest request);
 
     ProductResponse getById(Long id);
 
-    ProductResponse update(Long id, ProductRequest request);
+    /** Versión y fecha de última modificación del producto, sin cargarlo; vacío si no existe. */
+    Optional<ResourceState> findState(Long id);
+
+    /** @param expectedVersion versión indicada en If-Match; {@code null} para no comprobarla */
+    ProductResponse update(Long id, ProductRequest request, Long expectedVersion);
 
-    void delete(Long id);
+    void delete(Long id, Long expectedVersion);
+
+    /** Suma {@code delta} (positivo o negativo) al stock y devuelve el valor resultante. */
+    int adjustStock(Long id, int delta);
 
     Page<ProductResponse> search(Specification<?> spec, Pageable pageable);
+
+    Slice<ProductResponse> searchSlice(Specification<?> spec, Pageable pageable);
+
+    long count(Specification<?> spec);
+
+    CursorSlice<ProductResponse> scroll(Specification<?> spec, CursorRequest request);
+
+    /** Entrega cada fila al consumidor a medida que se lee, sin acumular el resultado. */
+    void export(Specification<?> spec, Sort sort, Consumer<ProductResponse> consumer);
 }
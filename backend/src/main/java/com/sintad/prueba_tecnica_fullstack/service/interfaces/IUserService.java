@@ -2,8 +2,11 @@ package com.sintad.prueba_tecnica_fullstack.service.interfaces;
 
 import com.sintad.prueba_tecnica_fullstack.dto.user.UserRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.user.UserResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 
 public interface IUserService {
@@ -12,9 +15,16 @@ public interface IUserService {
 
     UserResponse getById(Long id);
 
-    UserResponse update(Long id, UserRequest request);
+    /** @param expectedVersion versión indicada en If-Match; {@code null} para no comprobarla */
+    UserResponse update(Long id, UserRequest request, Long expectedVersion);
 
-    void delete(Long id);
+    void delete(Long id, Long expectedVersion);
 
     Page<UserResponse> search(Specification<?> spec, Pageable pageable);
+
+    Slice<UserResponse> searchSlice(Specification<?> spec, Pageable pageable);
+
+    long count(Specification<?> spec);
+
+    CursorSlice<UserResponse> scroll(Specification<?> spec, CursorRequest request);
 }
@@ -0,0 +1,272 @@
+package com.sintad.prueba_tecnica_fullstack.shared.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Log de accesos asíncrono. El hilo de la petición solo reserva una casilla de un anillo acotado
+ * (un CAS) y copia en ella cinco campos de tamaño fijo; un único hilo escritor vacía el anillo,
+ * da formato a las líneas y las anexa por NIO a un fichero que rota por tamaño. Si el anillo está
+ * lleno, {@code overflow} decide entre descartar el evento o esperar a que haya sitio.
+ */
+@Component
+@ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true")
+public class AccessLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLog.class);
+
+    public static final String NAME = "http.access-log";
+
+    private static final DateTimeFormatter ROLLED_SUFFIX =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long FULL_PARK_NANOS = 50_000;
+
+    public enum Overflow { DROP, BLOCK }
+
+    // Anillo de Vyukov: la secuencia de cada casilla indica si está libre (== posición) o
+    // publicada (== posición + 1); los campos se leen tras la lectura acquire de la secuencia
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final long[] durations;
+    private final int[] statuses;
+    private final String[] methods;
+    private final String[] uris;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final Overflow overflow;
+    private final Counter dropped;
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+    private final StringBuilder line = new StringBuilder(256);
+    private FileChannel channel;
+    private long fileSize;
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    /** @param bufferSize casillas del anillo; se redondea a la siguiente potencia de dos */
+    public AccessLog(@Value("${app.access-log.file}") Path file,
+                     @Value("${app.access-log.max-file-size:10MB}") DataSize maxFileSize,
+                     @Value("${app.access-log.max-history:7}") int maxHistory,
+                     @Value("${app.access-log.buffer-size:8192}") int bufferSize,
+                     @Value("${app.access-log.overflow:drop}") Overflow overflow,
+                     MeterRegistry meterRegistry) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize) * 2 - 1);
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+        this.timestamps = new long[capacity];
+        this.durations = new long[capacity];
+        this.statuses = new int[capacity];
+        this.methods = new String[capacity];
+        this.uris = new String[capacity];
+        this.overflow = overflow;
+        this.file = file;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxHistory = maxHistory;
+        this.dropped = Counter.builder(NAME + ".dropped")
+                .description("Eventos descartados con el anillo lleno")
+                .register(meterRegistry);
+        Gauge.builder(NAME + ".backlog", this, a -> a.tail.get() - a.head)
+                .description("Eventos pendientes de escribir")
+                .register(meterRegistry);
+        openFile();
+    }
+
+    /** Registra una petición terminada. No da formato ni reserva memoria. */
+    public void record(String method, String uri, int status, long durationNanos) {
+        long position;
+        while (true) {
+            position = tail.get();
+            long diff = sequences.getAcquire((int) position & mask) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+            } else if (diff < 0) {
+                // Sin escritor (arranque o parada) esperar no serviría de nada
+                if (overflow == Overflow.DROP || writer == null) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+        int slot = (int) position & mask;
+        timestamps[slot] = System.currentTimeMillis();
+        durations[slot] = durationNanos;
+        statuses[slot] = status;
+        methods[slot] = method;
+        uris[slot] = uri;
+        sequences.setRelease(slot, position + 1);
+    }
+
+    /** Escribe lo publicado hasta ahora; solo desde el hilo escritor (o los tests). */
+    int drain() {
+        int written = 0;
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.getAcquire(slot) != head + 1) break;
+            format(timestamps[slot], methods[slot], uris[slot], statuses[slot], durations[slot]);
+            methods[slot] = null;
+            uris[slot] = null;
+            sequences.setRelease(slot, head + mask + 1);
+            head++;
+            written++;
+        }
+        if (written > 0) flushBuffer();
+        return written;
+    }
+
+    private void format(long timestamp, String method, String uri, int status, long durationNanos) {
+        line.setLength(0);
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(timestamp), line);
+        long micros = durationNanos / 1_000;
+        line.append(' ').append(method).append(' ').append(uri).append(' ').append(status).append(' ')
+                .append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) line.append('0');
+        if (fraction < 10) line.append('0');
+        line.append(fraction).append(" ms\n");
+
+        if (out.remaining() < line.length()) flushBuffer();
+        for (int i = 0; i < line.length() && out.hasRemaining(); i++) {
+            char c = line.charAt(i);
+            // getRequestURI() llega sin decodificar: todo ASCII salvo clientes que no codifican
+            out.put(c < 0x80 ? (byte) c : (byte) '?');
+        }
+    }
+
+    private void flushBuffer() {
+        out.flip();
+        try {
+            if (fileSize + out.remaining() > maxFileSize && fileSize > 0) roll();
+            while (out.hasRemaining()) fileSize += channel.write(out);
+        } catch (IOException e) {
+            log.warn("No se pudo escribir el log de accesos en {}", file, e);
+        } finally {
+            out.clear();
+        }
+    }
+
+    private void roll() throws IOException {
+        channel.close();
+        // Dos rotaciones en el mismo milisegundo no deben pisarse
+        long millis = System.currentTimeMillis();
+        Path target;
+        do {
+            target = file.resolveSibling(file.getFileName() + "." + ROLLED_SUFFIX.format(Instant.ofEpochMilli(millis++)));
+        } while (Files.exists(target));
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        openFile();
+        List<Path> rolled = rolledFiles();
+        for (int i = 0; i < rolled.size() - maxHistory; i++) {
+            Files.deleteIfExists(rolled.get(i));
+        }
+    }
+
+    /** Ficheros rotados, del más antiguo al más reciente; package-private para los tests. */
+    List<Path> rolledFiles() throws IOException {
+        String prefix = file.getFileName() + ".";
+        try (Stream<Path> siblings = Files.list(file.toAbsolutePath().getParent())) {
+            return siblings.filter(path -> path.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+
+    private void openFile() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            fileSize = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el log de accesos " + file, e);
+        }
+    }
+
+    // El escritor es dueño del canal (roll() lo cierra y reabre), así que también lo cierra al salir
+    private void writeLoop() {
+        try {
+            while (running) {
+                if (drain() == 0) LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            drain();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el log de accesos", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("access-log-writer").daemon().start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = writer;
+        if (current == null) {
+            // Nunca arrancó: nadie más usa el canal
+            closeChannel();
+            return;
+        }
+        try {
+            current.join(5_000);
+            if (current.isAlive()) {
+                current.interrupt();
+                current.join(1_000);
+            }
+        } catch (InterruptedException e) {
+            current.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            log.warn("El escritor del log de accesos no terminó; cerrará el fichero al salir");
+            return;
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sintad.prueba_tecnica_fullstack.shared.accesslog;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Primer filtro de la cadena: mide la petición completa, incluidas las rechazadas por admisión o
+ * por seguridad. El inicio queda en una variable local (sin atributos de la petición) y las
+ * respuestas asíncronas se registran al completarse, con su duración real.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true")
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLog accessLog;
+
+    public AccessLogFilter(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Completion(request.getMethod(), request.getRequestURI(), start));
+            } else {
+                accessLog.record(request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        System.nanoTime() - start);
+            }
+        }
+    }
+
+    private class Completion implements AsyncListener {
+
+        private final String method;
+        private final String uri;
+        private final long start;
+
+        Completion(String method, String uri, long start) {
+            this.method = method;
+            this.uri = uri;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = ((HttpServletResponse) event.getSuppliedResponse()).getStatus();
+            accessLog.record(method, uri, status, System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
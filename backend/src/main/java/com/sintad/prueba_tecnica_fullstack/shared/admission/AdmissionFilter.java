@@ -0,0 +1,142 @@
+package com.sintad.prueba_tecnica_fullstack.shared.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita las peticiones en curso a un múltiplo de las conexiones JDBC disponibles. Con hilos
+ * virtuales Tomcat deja de poner tope a la concurrencia, y sin este filtro miles de peticiones
+ * acabarían esperando conexión dentro de Hikari hasta agotar su {@code connectionTimeout}. Aquí
+ * esperan como mucho {@code queue-timeout} antes de recibir un 503, sin haber tocado la BD.
+ */
+@Component
+// Justo después del log de accesos, para que los 503 también queden registrados
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    public static final String NAME = "http.admission";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration queueTimeout;
+    private final Counter rejected;
+
+    /**
+     * @param maxConcurrent tope explícito; si es 0 se calcula como la suma de
+     *                      {@code maximumPoolSize} de los pools Hikari por {@code perConnection}
+     */
+    public AdmissionFilter(List<HikariDataSource> pools,
+                           @Value("${app.admission.max-concurrent:0}") int maxConcurrent,
+                           @Value("${app.admission.requests-per-connection:2}") int perConnection,
+                           @Value("${app.admission.queue-timeout:2s}") Duration queueTimeout,
+                           MeterRegistry meterRegistry) {
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent
+                : Math.max(1, pools.stream().mapToInt(HikariDataSource::getMaximumPoolSize).sum() * perConnection);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.queueTimeout = queueTimeout;
+        Gauge.builder(NAME + ".active", this, f -> f.maxConcurrent - f.permits.availablePermits())
+                .description("Peticiones admitidas en curso")
+                .register(meterRegistry);
+        Gauge.builder(NAME + ".waiting", permits, Semaphore::getQueueLength)
+                .description("Peticiones esperando admisión")
+                .register(meterRegistry);
+        Gauge.builder(NAME + ".limit", this, f -> f.maxConcurrent)
+                .register(meterRegistry);
+        this.rejected = Counter.builder(NAME + ".rejected")
+                .description("Peticiones rechazadas tras esperar queue-timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Los health checks deben responder aunque la aplicación esté saturada
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"error\":\"Servicio saturado\",\"message\":\"Intente nuevamente en unos segundos\"}");
+            return;
+        }
+
+        Permit permit = new Permit();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Las exportaciones siguen usando la conexión en el hilo asíncrono: el permiso se libera al terminar
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private class Permit implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) permits.release();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
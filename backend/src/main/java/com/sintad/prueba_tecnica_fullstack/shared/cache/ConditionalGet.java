@@ -0,0 +1,90 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validadores HTTP (ETag y Last-Modified) para GET condicionales. Se calculan sin consultar
+ * los datos, de modo que un 304 se responde antes de la consulta principal y de serializar.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGet {
+
+    // El cliente puede guardar la respuesta pero debe revalidarla en cada uso
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    // "{id}-v{versión}-{tag}" tal como lo emite forResource, o solo "{versión}"
+    private static final Pattern IF_MATCH = Pattern.compile("\"(?:[^\"-]+-v)?(\\d+)(?:-[^\"]*)?\"");
+
+    private final EntityVersions entityVersions;
+
+    /** ETag débil: cambia con cualquier escritura de los tipos que aparecen en el listado. */
+    public Validators forList(Class<?>... types) {
+        EntityVersions.Snapshot snapshot = entityVersions.snapshot(types);
+        return new Validators("W/\"" + snapshot.tag() + "\"", snapshot.lastModified());
+    }
+
+    /**
+     * ETag fuerte de un recurso: su id y versión, más la versión de los tipos relacionados cuyos
+     * datos incluye la respuesta (p. ej. el nombre de la categoría), y la variante del estado si la
+     * hay. Sirve también como If-Match.
+     */
+    public Validators forResource(Object id, ResourceState state, Class<?>... dependencies) {
+        Instant modified = state.lastModified().atZone(ZoneId.systemDefault()).toInstant();
+        EntityVersions.Snapshot snapshot = entityVersions.snapshot(dependencies);
+        String variant = state.variant() == null ? "" : "-" + state.variant();
+        String etag = "\"" + id + "-v" + state.version() + "-" + snapshot.tag() + variant + "\"";
+        Instant latest = snapshot.lastModified().isAfter(modified) ? snapshot.lastModified() : modified;
+        return new Validators(etag, latest);
+    }
+
+    /**
+     * Versión esperada según If-Match; vacío si no se envía o es {@code *}. Solo se compara la
+     * versión del recurso: un cambio en los tipos relacionados no invalida la escritura.
+     */
+    public static Optional<Long> ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) return Optional.empty();
+        Matcher matcher = IF_MATCH.matcher(ifMatch.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("If-Match debe ser el ETag del recurso o su versión entre comillas");
+        }
+        return Optional.of(Long.valueOf(matcher.group(1)));
+    }
+
+    public record Validators(String etag, Instant lastModified) {
+
+        /** {@code true} si el cliente ya tiene esta versión (If-None-Match / If-Modified-Since). */
+        public boolean matches(WebRequest request) {
+            return request.checkNotModified(etag, lastModified.toEpochMilli());
+        }
+
+        public <T> ResponseEntity<T> notModified() {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+
+        public <T> ResponseEntity<T> ok(T body) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(CACHE_CONTROL)
+                    .body(body);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Listener JPA que traduce altas, ediciones y bajas en {@link EntityChangedEvent}. Hibernate lo
+ * instancia a través del contenedor de Spring; las escrituras por JDBC publican el evento a mano.
+ */
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public EntityChangeListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void changed(Object entity) {
+        publisher.publishEvent(new EntityChangedEvent(Hibernate.getClass(entity)));
+    }
+}
@@ -0,0 +1,5 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+/** Se publicó (o se publicará al confirmar la transacción) un cambio en filas del tipo indicado. */
+public record EntityChangedEvent(Class<?> entityType) {
+}
@@ -0,0 +1,118 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InvalidationBus;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InvalidationHandler;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Versión en memoria por tipo de entidad, usada como validador de los listados. Se incrementa
+ * al confirmarse la transacción que modificó el tipo, nunca antes: un lector que vea la versión
+ * nueva ya ve los datos nuevos. El prefijo de época evita que un ETag emitido antes de un
+ * reinicio coincida con el contador reiniciado. Los cambios hechos en otras réplicas llegan
+ * por el {@link InvalidationBus}.
+ */
+@Component
+public class EntityVersions {
+
+    public static final String REGION = "entity-versions";
+
+    private final InvalidationBus bus;
+    private final ConcurrentMap<String, Version> versions = new ConcurrentHashMap<>();
+    private volatile Epoch epoch = Epoch.next();
+
+    private record Version(long value, Instant changedAt) {
+    }
+
+    private record Epoch(String id, Instant startedAt) {
+
+        static Epoch next() {
+            return new Epoch(UUID.randomUUID().toString().substring(0, 8), Instant.now());
+        }
+    }
+
+    /** Estado combinado de varios tipos: {@code tag} cambia si cambia cualquiera de ellos. */
+    public record Snapshot(String tag, Instant lastModified) {
+    }
+
+    public EntityVersions(InvalidationBus bus) {
+        this.bus = bus;
+        bus.subscribe(REGION, new InvalidationHandler() {
+            @Override
+            public void invalidate(String typeName) {
+                bump(typeName);
+            }
+
+            @Override
+            public void invalidateAll() {
+                // Se desconoce qué tipos cambiaron: una época nueva invalida todos los validadores
+                epoch = Epoch.next();
+            }
+        });
+    }
+
+    public Snapshot snapshot(Class<?>... types) {
+        Epoch current = epoch;
+        StringBuilder tag = new StringBuilder(current.id());
+        Instant lastModified = current.startedAt();
+        for (Class<?> type : types) {
+            Version version = versions.get(type.getName());
+            tag.append('.').append(version == null ? 0 : version.value());
+            if (version != null && version.changedAt().isAfter(lastModified)) {
+                lastModified = version.changedAt();
+            }
+        }
+        return new Snapshot(tag.toString(), lastModified);
+    }
+
+    /** Incrementa solo en este nodo; las escrituras locales pasan por {@link #onEntityChanged}. */
+    public void bump(Class<?> type) {
+        bump(type.getName());
+    }
+
+    private void bump(String typeName) {
+        Instant now = Instant.now();
+        versions.merge(typeName, new Version(1, now), (current, ignored) -> new Version(current.value() + 1, now));
+    }
+
+    /**
+     * Dentro de una transacción, un solo incremento por tipo al confirmar; el aviso a los demás nodos
+     * se publica ya, en la misma transacción, para que se confirme con ella. Fuera de ella, inmediato.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(event.entityType());
+            bus.publish(REGION, event.entityType().getName());
+            return;
+        }
+        PendingBumps pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingBumps.class::isInstance)
+                .map(PendingBumps.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingBumps created = new PendingBumps();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        if (pending.types.add(event.entityType())) bus.publish(REGION, event.entityType().getName());
+    }
+
+    private class PendingBumps implements TransactionSynchronization {
+
+        private final Set<Class<?>> types = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void afterCommit() {
+            types.forEach(EntityVersions.this::bump);
+        }
+    }
+}
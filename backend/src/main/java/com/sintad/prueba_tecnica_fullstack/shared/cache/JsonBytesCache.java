@@ -0,0 +1,63 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.function.Supplier;
+
+/**
+ * Respuestas de recursos individuales ya serializadas a JSON UTF-8, listas para escribirse en
+ * la respuesta. La clave es el ETag fuerte del recurso: una edición o un cambio en los tipos
+ * relacionados genera otra clave, y un recurso borrado ya no llega a consultarse. Las entradas
+ * viejas salen por el presupuesto de memoria.
+ */
+@Component
+public class JsonBytesCache {
+
+    public static final String NAME = "json-bytes";
+
+    // Cabecera del array, la entrada del mapa y la clave: lo que ocupa una entrada además del JSON
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, byte[]> bodies;
+
+    public JsonBytesCache(ObjectMapper objectMapper,
+                          @Value("${app.cache.json-bytes.max-size:16MB}") DataSize maxSize,
+                          MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, byte[] body) -> ENTRY_OVERHEAD + 2 * key.length() + body.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, NAME);
+        Gauge.builder("cache.weighted.size", bodies,
+                        cache -> cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .tag("cache", NAME)
+                .description("Bytes estimados retenidos por las respuestas serializadas")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** Bytes de {@code body}, serializado solo si la clave no estaba en caché. */
+    public byte[] get(String key, Supplier<?> body) {
+        return bodies.get(key, k -> serialize(body.get()));
+    }
+
+    public byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+}
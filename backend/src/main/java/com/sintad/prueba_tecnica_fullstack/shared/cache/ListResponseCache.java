@@ -0,0 +1,109 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sintad.prueba_tecnica_fullstack.shared.datasource.ReadYourWritesWindow;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.PageResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Respuestas de listados por URL normalizada, rol del usuario y versión de los datos. Como la
+ * versión forma parte de la clave, una escritura no desaloja nada: las entradas viejas dejan de
+ * pedirse y salen por tamaño.
+ * <p>
+ * Con réplica de lectura, el primer lector tras un cambio puede leer de una réplica que aún no
+ * lo tiene y guardaría datos viejos bajo la versión nueva. Mientras dure la ventana de
+ * read-your-writes desde el último cambio de los tipos listados, los listados se calculan sin
+ * guardarse.
+ */
+@Component
+public class ListResponseCache {
+
+    public static final String NAME = "list-responses";
+
+    private final Cache<String, PageResponse<?>> responses;
+    private final Duration replicaLag;
+
+    @Autowired
+    public ListResponseCache(@Value("${app.cache.list-responses.ttl:5m}") Duration ttl,
+                             @Value("${app.cache.list-responses.max-rows:100000}") long maxRows,
+                             MeterRegistry meterRegistry,
+                             ObjectProvider<ReadYourWritesWindow> readYourWrites) {
+        this(ttl, maxRows, meterRegistry, readYourWrites.stream()
+                .map(ReadYourWritesWindow::duration)
+                .findFirst()
+                .orElse(Duration.ZERO));
+    }
+
+    /** @param replicaLag tiempo tras un cambio durante el que las lecturas pueden venir de una réplica atrasada */
+    public ListResponseCache(Duration ttl, long maxRows, MeterRegistry meterRegistry, Duration replicaLag) {
+        this.replicaLag = replicaLag;
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxRows)
+                .weigher((String key, PageResponse<?> response) -> 1 + response.getData().size())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, NAME);
+        Gauge.builder("cache.weighted.size", responses,
+                        cache -> cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .tag("cache", NAME)
+                .description("Filas retenidas en los listados cacheados")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param validators validadores de los tipos que aparecen en el listado ({@link ConditionalGet#forList})
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PageResponse<T> get(ConditionalGet.Validators validators, HttpServletRequest request,
+                                   Supplier<PageResponse<T>> loader) {
+        if (validators.lastModified().plus(replicaLag).isAfter(Instant.now())) {
+            return loader.get();
+        }
+        return (PageResponse<T>) responses.get(key(validators.etag(), request), k -> loader.get());
+    }
+
+    /** Los enlaces de la respuesta son absolutos, así que la clave incluye esquema, host y ruta. */
+    static String key(String version, HttpServletRequest request) {
+        Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+        String query = params.entrySet().stream()
+                .flatMap(e -> Arrays.stream(e.getValue())
+                        .map(value -> UriUtils.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                                + UriUtils.encode(value, StandardCharsets.UTF_8)))
+                .collect(Collectors.joining("&"));
+        return ServletUriComponentsBuilder.fromRequestUri(request).toUriString() + "?" + query
+                + "|" + role() + "|" + version;
+    }
+
+    private static String role() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) return "";
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
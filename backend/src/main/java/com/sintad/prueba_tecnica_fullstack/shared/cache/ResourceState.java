@@ -0,0 +1,19 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión y fecha de modificación de un recurso, leídas sin cargar la entidad. {@code variant}
+ * distingue estados que la versión no refleja (p. ej. el stock aún sin volcar) y entra en el ETag.
+ */
+public record ResourceState(Long version, LocalDateTime lastModified, String variant) {
+
+    public ResourceState(Long version, LocalDateTime lastModified) {
+        this(version, lastModified, null);
+    }
+
+    /** Mismo recurso con un estado adicional, modificado a más tardar en {@code modified}. */
+    public ResourceState withVariant(String variant, LocalDateTime modified) {
+        return new ResourceState(version, modified.isAfter(lastModified) ? modified : lastModified, variant);
+    }
+}
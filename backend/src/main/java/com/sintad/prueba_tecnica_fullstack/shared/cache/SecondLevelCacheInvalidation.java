@@ -0,0 +1,47 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InvalidationBus;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InvalidationHandler;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.Cache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Desaloja de la caché de segundo nivel de Hibernate las entidades modificadas en otra réplica,
+ * junto con la región de consultas de su tipo ({@code <región>-queries}): la región de timestamps
+ * solo registra las escrituras de este nodo. Los tipos sin {@link Cache}, como Product, no tienen
+ * nada que desalojar.
+ */
+@Component
+public class SecondLevelCacheInvalidation implements InvalidationHandler {
+
+    /** Sufijo de la región de consultas cacheadas de cada entidad con caché L2. */
+    public static final String QUERY_REGION_SUFFIX = "-queries";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheInvalidation(EntityManagerFactory entityManagerFactory, InvalidationBus bus) {
+        this.entityManagerFactory = entityManagerFactory;
+        bus.subscribe(EntityVersions.REGION, this);
+    }
+
+    @Override
+    public void invalidate(String typeName) {
+        entityManagerFactory.getMetamodel().getEntities().stream()
+                .map(EntityType::getJavaType)
+                .filter(type -> type.getName().equals(typeName) && type.isAnnotationPresent(Cache.class))
+                .forEach(type -> {
+                    entityManagerFactory.getCache().evict(type);
+                    entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                            .evictQueryRegion(type.getAnnotation(Cache.class).region() + QUERY_REGION_SUFFIX);
+                });
+    }
+
+    @Override
+    public void invalidateAll() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
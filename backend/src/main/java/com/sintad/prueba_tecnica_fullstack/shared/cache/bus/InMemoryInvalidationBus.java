@@ -0,0 +1,54 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache.bus;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bus de un solo nodo: sin pares conectados, publicar no hace nada. En pruebas se pueden conectar
+ * varias instancias para simular réplicas; lo publicado en una transacción les llega al confirmarla.
+ * No retiene mensajes, así que no hay nada que repetir.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.bus.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryInvalidationBus implements InvalidationBus {
+
+    private final Map<String, List<InvalidationHandler>> handlers = new ConcurrentHashMap<>();
+    private final List<InMemoryInvalidationBus> peers = new CopyOnWriteArrayList<>();
+
+    /** Conecta ambos buses en los dos sentidos. */
+    public void connect(InMemoryInvalidationBus peer) {
+        peers.add(peer);
+        peer.peers.add(this);
+    }
+
+    @Override
+    public void publish(String region, String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            peers.forEach(peer -> peer.deliver(region, key));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                peers.forEach(peer -> peer.deliver(region, key));
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(String region, InvalidationHandler handler, Duration replay) {
+        handlers.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    private void deliver(String region, String key) {
+        handlers.getOrDefault(region, List.of()).forEach(handler -> handler.invalidate(key));
+    }
+}
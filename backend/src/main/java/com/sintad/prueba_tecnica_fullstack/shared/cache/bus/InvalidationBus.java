@@ -0,0 +1,28 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache.bus;
+
+import java.time.Duration;
+
+/**
+ * Canal entre réplicas para invalidar cachés en memoria. Quien publica aplica el cambio en su
+ * propia caché (normalmente tras el commit); el bus solo lo hace llegar al resto de nodos.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Debe llamarse dentro de la transacción que origina el cambio: los demás nodos solo reciben
+     * el mensaje si confirma, y nunca antes. Fuera de una transacción se envía en el acto.
+     */
+    void publish(String region, String key);
+
+    /** Solo recibe lo publicado a partir de ahora: sirve a cachés que arrancan vacías. */
+    default void subscribe(String region, InvalidationHandler handler) {
+        subscribe(region, handler, Duration.ZERO);
+    }
+
+    /**
+     * Entrega antes de volver los mensajes retenidos de los últimos {@code replay}, también los
+     * publicados por una instancia anterior de este nodo. Lo necesita el estado que no se puede
+     * reconstruir desde la BD, como las revocaciones de tokens tras un reinicio.
+     */
+    void subscribe(String region, InvalidationHandler handler, Duration replay);
+}
@@ -0,0 +1,10 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache.bus;
+
+/** Aplica en este nodo las invalidaciones publicadas por otro. */
+public interface InvalidationHandler {
+
+    void invalidate(String key);
+
+    /** Se perdieron mensajes de la región (p. ej. se purgaron antes de leerlos): descartar todo. */
+    void invalidateAll();
+}
@@ -0,0 +1,193 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bus sobre la base de datos compartida, válido para PostgreSQL y H2. Publicar es un INSERT en
+ * la transacción en curso (tabla de salida): el mensaje se confirma o se pierde junto con el cambio
+ * y no pide otra conexión ni bloquea ninguna fila compartida. Los mensajes se numeran con una
+ * columna identity y cada nodo lee cada {@code poll-interval} los posteriores al último visto.
+ * <p>
+ * Un número saltado puede ser una transacción que aún no confirmó o una que se revirtió: se vuelve
+ * a buscar en cada consulta durante {@code gap-timeout}. Si no aparece en ese plazo, o si los huecos
+ * son demasiados, no se puede saber qué se perdió y se descartan todas las regiones.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.bus.type", havingValue = "jdbc")
+public class JdbcInvalidationBus implements InvalidationBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcInvalidationBus.class);
+
+    private static final Duration PURGE_EVERY = Duration.ofMinutes(1);
+    private static final int MAX_GAPS = 1_000;
+
+    private static final RowMapper<Message> MESSAGE = (rs, i) ->
+            new Message(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+
+    private final String origin = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final Duration gapTimeout;
+
+    private final Map<String, List<InvalidationHandler>> handlers = new ConcurrentHashMap<>();
+    // Solo los usa poll()/subscribe(), sincronizados entre sí
+    private long seen;
+    private final TreeMap<Long, Instant> gaps = new TreeMap<>();
+    private Instant lastPurge = Instant.EPOCH;
+    private volatile ScheduledExecutorService poller;
+
+    private record Message(long id, String region, String key, String origin) {
+    }
+
+    public JdbcInvalidationBus(JdbcTemplate jdbcTemplate,
+                               @Value("${app.cache.bus.poll-interval:1s}") Duration pollInterval,
+                               @Value("${app.cache.bus.retention:2h}") Duration retention,
+                               @Value("${app.cache.bus.gap-timeout:1m}") Duration gapTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.gapTimeout = gapTimeout;
+        createTables();
+        this.seen = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cache_invalidation_log", Long.class);
+    }
+
+    private void createTables() {
+        jdbcTemplate.execute("create table if not exists cache_invalidation_log ("
+                + "id bigint generated by default as identity primary key, region varchar(100) not null, "
+                + "cache_key varchar(255) not null, origin varchar(36) not null, created_at timestamp not null)");
+        jdbcTemplate.execute("create index if not exists cache_invalidation_log_created_at "
+                + "on cache_invalidation_log (created_at)");
+    }
+
+    /**
+     * Se une a la transacción en curso, que no puede ser de solo lectura; sin transacción el
+     * INSERT se confirma en el acto. Si falla, la excepción revierte el cambio que lo originó.
+     */
+    @Override
+    public void publish(String region, String key) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new IllegalStateException("No se puede publicar la invalidación " + region + ":" + key
+                    + " desde una transacción de solo lectura");
+        }
+        jdbcTemplate.update("insert into cache_invalidation_log (region, cache_key, origin, created_at) "
+                + "values (?, ?, ?, ?)", region, key, origin, Timestamp.from(Instant.now()));
+    }
+
+    @Override
+    public synchronized void subscribe(String region, InvalidationHandler handler, Duration replay) {
+        if (replay.compareTo(retention) > 0) {
+            log.warn("La región '{}' pide repetir {} pero solo se retienen {}", region, replay, retention);
+        }
+        Duration window = replay.compareTo(retention) > 0 ? retention : replay;
+        if (!window.isZero()) {
+            // Sin filtrar por origen: el nodo que los publicó pudo ser una instancia anterior de este
+            jdbcTemplate.query("select cache_key from cache_invalidation_log "
+                            + "where region = ? and id <= ? and created_at >= ? order by id",
+                    rs -> { handler.invalidate(rs.getString(1)); },
+                    region, seen, Timestamp.from(Instant.now().minus(window)));
+        }
+        // Lo posterior a seen, y los huecos pendientes, llegan por poll()
+        handlers.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /** Aplica los mensajes de otros nodos confirmados desde la última consulta. */
+    synchronized void poll() {
+        Instant now = Instant.now();
+        if (!gaps.isEmpty()) {
+            List<Long> pending = List.copyOf(gaps.keySet());
+            jdbcTemplate.query("select id, region, cache_key, origin from cache_invalidation_log where id in ("
+                            + String.join(",", Collections.nCopies(pending.size(), "?")) + ") order by id",
+                    MESSAGE, pending.toArray())
+                    .forEach(message -> {
+                        gaps.remove(message.id());
+                        deliver(message);
+                    });
+        }
+
+        for (Message message : jdbcTemplate.query("select id, region, cache_key, origin from cache_invalidation_log "
+                + "where id > ? order by id", MESSAGE, seen)) {
+            if (message.id() - seen - 1 + gaps.size() > MAX_GAPS) {
+                dropAll("más de " + MAX_GAPS + " mensajes sin confirmar");
+            } else {
+                for (long missing = seen + 1; missing < message.id(); missing++) gaps.put(missing, now);
+            }
+            deliver(message);
+            seen = message.id();
+        }
+
+        Instant expired = now.minus(gapTimeout);
+        if (!gaps.isEmpty() && !gaps.values().stream().allMatch(since -> since.isAfter(expired))) {
+            dropAll("mensajes sin aparecer tras " + gapTimeout);
+        }
+
+        purgeIfDue(now);
+    }
+
+    private void deliver(Message message) {
+        if (origin.equals(message.origin())) return;
+        handlers.getOrDefault(message.region(), List.of()).forEach(handler -> handler.invalidate(message.key()));
+    }
+
+    private void dropAll(String reason) {
+        log.warn("Posible pérdida de invalidaciones ({}); se descartan todas las regiones", reason);
+        gaps.clear();
+        handlers.values().forEach(regionHandlers -> regionHandlers.forEach(InvalidationHandler::invalidateAll));
+    }
+
+    private void purgeIfDue(Instant now) {
+        if (Duration.between(lastPurge, now).compareTo(PURGE_EVERY) < 0) return;
+        lastPurge = now;
+        jdbcTemplate.update("delete from cache_invalidation_log where created_at < ?", Timestamp.from(now.minus(retention)));
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Falló la consulta de invalidaciones; se reintenta en {}", pollInterval, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("cache-invalidation-poller").daemon().factory());
+        poller.scheduleWithFixedDelay(this::pollSafely, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (poller != null) poller.shutdownNow();
+        poller = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return poller != null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.sintad.prueba_tecnica_fullstack.shared.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Envía las transacciones {@code readOnly} a la réplica y el resto al primario; las conexiones
+ * pedidas fuera de una transacción también van al primario.
+ * Debe envolverse en un {@code LazyConnectionDataSourceProxy}: así la conexión física
+ * se pide en la primera sentencia, cuando la transacción ya publicó si es de solo lectura.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    public static final String METRIC = "app.datasource.routing";
+
+    private final ReadYourWritesWindow window;
+    private final Counter writes;
+    private final Counter reads;
+    private final Counter pinnedReads;
+    private final Counter unscoped;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow window,
+                                      MeterRegistry meterRegistry) {
+        this.window = window;
+        this.writes = counter(meterRegistry, Target.PRIMARY, "read-write");
+        this.reads = counter(meterRegistry, Target.REPLICA, "read-only");
+        this.pinnedReads = counter(meterRegistry, Target.PRIMARY, "read-your-writes");
+        this.unscoped = counter(meterRegistry, Target.PRIMARY, "no-transaction");
+
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trackWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trackWrites(super.getConnection(username, password));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            unscoped.increment();
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return Target.PRIMARY;
+        }
+
+        if (window.isActive()) {
+            pinnedReads.increment();
+            return Target.PRIMARY;
+        }
+
+        reads.increment();
+        return Target.REPLICA;
+    }
+
+    /**
+     * Abre la ventana de lectura de lo escrito solo si la transacción llega a modificar filas y confirma:
+     * una transacción de escritura que solo lee (p. ej. un conflicto que lanza tras cargar) no fija al usuario.
+     */
+    private Connection trackWrites(Connection connection) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return connection;
+        }
+        AtomicBoolean modified = new AtomicBoolean();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (modified.get()) window.recordWrite();
+            }
+        });
+        return WriteTrackingConnection.wrap(connection, () -> modified.set(true));
+    }
+
+    private static Counter counter(MeterRegistry registry, Target target, String reason) {
+        return Counter.builder(METRIC)
+                .description("Conexiones entregadas por destino del enrutamiento lectura/escritura")
+                .tag("target", target.name().toLowerCase())
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sintad.prueba_tecnica_fullstack.shared.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Ventana posterior a una escritura durante la cual las lecturas del mismo usuario
+ * siguen yendo al primario, para que vea sus propios cambios aunque la réplica
+ * todavía no los haya recibido.
+ */
+public class ReadYourWritesWindow {
+
+    static final String ANONYMOUS = "anonymous";
+
+    private final Duration window;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesWindow(Duration window, long maxSize) {
+        this.window = window;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public void recordWrite() {
+        recentWriters.put(currentKey(), Boolean.TRUE);
+    }
+
+    /** Retraso máximo que se asume para la réplica. */
+    public Duration duration() {
+        return window;
+    }
+
+    public boolean isActive() {
+        return recentWriters.getIfPresent(currentKey()) != null;
+    }
+
+    private static String currentKey() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return (auth != null && auth.getName() != null) ? auth.getName() : ANONYMOUS;
+    }
+}
@@ -0,0 +1,98 @@
+package com.sintad.prueba_tecnica_fullstack.shared.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Envuelve una conexión para avisar cuando una sentencia modifica filas: {@code executeUpdate} o
+ * {@code executeBatch} con algún recuento distinto de cero, un {@code execute} sin resultados, o una
+ * consulta DML ({@code insert ... returning}). Las lecturas dentro de una transacción de escritura no avisan.
+ */
+final class WriteTrackingConnection {
+
+    private WriteTrackingConnection() {
+    }
+
+    static Connection wrap(Connection connection, Runnable onWrite) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return statement(statement, sql, onWrite);
+            }
+            return result;
+        });
+    }
+
+    private static Statement statement(Statement statement, String preparedSql, Runnable onWrite) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return proxy(type, statement, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            if (modified(method.getName(), result, sql)) onWrite.run();
+            return result;
+        });
+    }
+
+    private static boolean modified(String method, Object result, String sql) {
+        return switch (method) {
+            case "executeUpdate", "executeLargeUpdate" -> ((Number) result).longValue() != 0;
+            case "executeBatch" -> {
+                for (int count : (int[]) result) if (count != 0) yield true;
+                yield false;
+            }
+            case "executeLargeBatch" -> {
+                for (long count : (long[]) result) if (count != 0) yield true;
+                yield false;
+            }
+            // false = el primer resultado es un recuento de filas, no un ResultSet
+            case "execute" -> !(Boolean) result || isDml(sql);
+            case "executeQuery" -> isDml(sql);
+            default -> false;
+        };
+    }
+
+    private static boolean isDml(String sql) {
+        if (sql == null) return false;
+        String head = sql.stripLeading();
+        int end = 0;
+        while (end < head.length() && Character.isLetter(head.charAt(end))) end++;
+        return switch (head.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "insert", "update", "delete", "merge" -> true;
+            default -> false;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> handler.handle(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(WriteTrackingConnection.class.getClassLoader(),
+                new Class<?>[]{type}, invocation);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
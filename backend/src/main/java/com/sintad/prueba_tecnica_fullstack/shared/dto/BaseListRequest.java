@@ -19,4 +19,10 @@ public class BaseListRequest {
 
     @Schema(description = "Dirección de ordenamiento (asc o desc)", example = "asc")
     private String direction = "desc";
+
+    @Schema(description = "Cursor opaco para paginación por cursor; vacío para la primera página (ignora 'page')", example = "")
+    private String cursor;
+
+    @Schema(description = "Cálculo del total: exact (count exacto), estimate (total cacheado) o none (sin total)", example = "exact")
+    private String total = "exact";
 }
@@ -0,0 +1,59 @@
+package com.sintad.prueba_tecnica_fullstack.shared.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de una operación masiva, con el detalle de cada elemento")
+public class BulkResponse {
+
+    public enum Status { CREATED, UPDATED, ERROR }
+
+    @Schema(description = "Elementos recibidos", example = "3")
+    private int total;
+
+    @Schema(description = "Elementos procesados correctamente", example = "2")
+    private int succeeded;
+
+    @Schema(description = "Elementos rechazados", example = "1")
+    private int failed;
+
+    @Schema(description = "Resultado por elemento, en el mismo orden de la petición")
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Resultado de un elemento de la operación masiva")
+    public static class Item {
+
+        @Schema(description = "Posición del elemento en la petición (desde 0)", example = "0")
+        private int index;
+
+        @Schema(description = "Estado del elemento", example = "CREATED")
+        private Status status;
+
+        @Schema(description = "ID del registro creado o actualizado", example = "15")
+        private Long id;
+
+        @Schema(description = "Errores del elemento por campo")
+        private Map<String, String> errors;
+    }
+
+    public static BulkResponse of(List<Item> items) {
+        int failed = (int) items.stream().filter(i -> i.getStatus() == Status.ERROR).count();
+        return BulkResponse.builder()
+                .total(items.size())
+                .succeeded(items.size() - failed)
+                .failed(failed)
+                .items(items)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.sintad.prueba_tecnica_fullstack.shared.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de una importación en streaming")
+public class ImportResponse {
+
+    @Schema(description = "Filas leídas", example = "120000")
+    private long total;
+
+    @Schema(description = "Filas guardadas", example = "119998")
+    private long imported;
+
+    @Schema(description = "Filas rechazadas", example = "2")
+    private long failed;
+
+    @Schema(description = "Lotes confirmados en la BD", example = "240")
+    private int chunks;
+
+    @Schema(description = "Detalle de las filas rechazadas (como máximo app.products.import.max-errors)")
+    private List<RowError> errors;
+
+    @Schema(description = "Indica que hubo más errores de los listados")
+    private boolean errorsTruncated;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Fila rechazada de la importación")
+    public static class RowError {
+
+        @Schema(description = "Número de fila de datos (desde 1, sin contar la cabecera)", example = "17")
+        private long row;
+
+        @Schema(description = "Errores de la fila por campo")
+        private Map<String, String> errors;
+    }
+}
@@ -1,8 +1,10 @@
 package com.sintad.prueba_tecnica_fullstack.shared.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
 import lombok.*;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -57,6 +59,64 @@ public class PageResponse<T> {
                 .build();
     }
 
+    public static <T> PageResponse<T> from(Slice<T> slice, HttpServletRequest request) {
+        int currentPage = slice.getNumber() + 1;
+
+        UriComponentsBuilder ub = ServletUriComponentsBuilder.fromRequest(request);
+
+        String first = ub.replaceQueryParam("page", 1).toUriString();
+        String prev = slice.hasPrevious() ? ub.replaceQueryParam("page", currentPage - 1).toUriString() : null;
+        String next = slice.hasNext() ? ub.replaceQueryParam("page", currentPage + 1).toUriString() : null;
+
+        String path = ServletUriComponentsBuilder.fromRequestUri(request).toUriString();
+
+        Links links = Links.builder()
+                .first(first)
+                .prev(prev)
+                .next(next)
+                .build();
+
+        Meta meta = Meta.builder()
+                .currentPage(currentPage)
+                .from(slice.getNumberOfElements() > 0 ? ((currentPage - 1) * slice.getSize()) + 1 : 0)
+                .path(path)
+                .perPage(slice.getSize())
+                .to(((currentPage - 1) * slice.getSize()) + slice.getNumberOfElements())
+                .build();
+
+        return PageResponse.<T>builder()
+                .data(slice.getContent())
+                .links(links)
+                .meta(meta)
+                .build();
+    }
+
+    public static <T> PageResponse<T> from(CursorSlice<T> slice, HttpServletRequest request) {
+        UriComponentsBuilder ub = ServletUriComponentsBuilder.fromRequest(request).replaceQueryParam("page");
+
+        String first = ub.replaceQueryParam("cursor", "").toUriString();
+        String next = slice.hasNext() ? ub.replaceQueryParam("cursor", slice.nextCursor()).toUriString() : null;
+
+        String path = ServletUriComponentsBuilder.fromRequestUri(request).toUriString();
+
+        Links links = Links.builder()
+                .first(first)
+                .next(next)
+                .build();
+
+        Meta meta = Meta.builder()
+                .path(path)
+                .perPage(slice.size())
+                .nextCursor(slice.nextCursor())
+                .build();
+
+        return PageResponse.<T>builder()
+                .data(slice.content())
+                .links(links)
+                .meta(meta)
+                .build();
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -73,12 +133,13 @@ public class PageResponse<T> {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Meta {
-        private int currentPage;
-        private int from;
-        private int lastPage;
+        private Integer currentPage;
+        private Integer from;
+        private Integer lastPage;
         private String path;
         private int perPage;
-        private int to;
-        private long total;
+        private Integer to;
+        private Long total;
+        private String nextCursor;
     }
 }
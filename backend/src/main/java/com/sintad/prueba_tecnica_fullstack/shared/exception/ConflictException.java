@@ -0,0 +1,28 @@
+package com.sintad.prueba_tecnica_fullstack.shared.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** La operación choca con el estado actual del recurso (p. ej. stock insuficiente). */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    /** Estado vigente del recurso, para que el cliente reintente sobre él; puede ser {@code null}. */
+    private final transient Object current;
+
+    public ConflictException(String message) {
+        this(message, null);
+    }
+
+    public ConflictException(String message, Object current) {
+        super(message);
+        this.current = current;
+    }
+
+    /** If-Match no coincide con la versión actual. */
+    public static ConflictException staleVersion(Object current) {
+        return new ConflictException("El recurso fue modificado por otra solicitud; reintente sobre la versión actual", current);
+    }
+}
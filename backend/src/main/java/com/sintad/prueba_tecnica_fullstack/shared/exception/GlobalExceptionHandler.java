@@ -1,8 +1,10 @@
 package com.sintad.prueba_tecnica_fullstack.shared.exception;
 
 import com.sintad.prueba_tecnica_fullstack.shared.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -91,6 +93,37 @@ public class GlobalExceptionHandler {
                                                 "message", ex.getMessage()));
         }
 
+        @ExceptionHandler(ConflictException.class)
+        public ResponseEntity<Map<String, Object>> handleConflict(ConflictException ex) {
+                Map<String, Object> body = new HashMap<>();
+                body.put("timestamp", LocalDateTime.now());
+                body.put("status", HttpStatus.CONFLICT.value());
+                body.put("error", "Conflict");
+                body.put("message", ex.getMessage());
+                if (ex.getCurrent() != null) {
+                        body.put("current", ex.getCurrent());
+                }
+                return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+        }
+
+        // Otra transacción confirmó entre la lectura y la escritura
+        @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+        public ResponseEntity<Map<String, Object>> handleOptimisticLock(ObjectOptimisticLockingFailureException ex) {
+                return handleConflict(new ConflictException(
+                                "El recurso fue modificado por otra solicitud; vuelva a consultarlo y reintente"));
+        }
+
+        @ExceptionHandler(OverloadedException.class)
+        public ResponseEntity<Map<String, Object>> handleOverloaded(OverloadedException ex) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(Map.of(
+                                                "timestamp", LocalDateTime.now(),
+                                                "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                                                "error", "Service Unavailable",
+                                                "message", ex.getMessage()));
+        }
+
         @ExceptionHandler(BadCredentialsException.class)
         public ResponseEntity<Map<String, Object>> handleBadCredentials(BadCredentialsException ex) {
                 Map<String, Object> body = new HashMap<>();
@@ -0,0 +1,12 @@
+package com.sintad.prueba_tecnica_fullstack.shared.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Trabajo rechazado por falta de capacidad; el cliente puede reintentar más tarde. */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OverloadedException extends RuntimeException {
+    public OverloadedException(String message) {
+        super(message);
+    }
+}
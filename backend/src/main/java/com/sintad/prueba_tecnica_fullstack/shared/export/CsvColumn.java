@@ -0,0 +1,6 @@
+package com.sintad.prueba_tecnica_fullstack.shared.export;
+
+import java.util.function.Function;
+
+public record CsvColumn<T>(String header, Function<T, Object> value) {
+}
@@ -0,0 +1,123 @@
+package com.sintad.prueba_tecnica_fullstack.shared.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Escribe filas en la respuesta a medida que el productor las entrega: nada se acumula
+ * en memoria, así que el consumo es el mismo para 10 filas que para millones.
+ * <p>
+ * El productor corre en un hilo del executor asíncrono de MVC, con el usuario de la petición:
+ * sin él, el enrutamiento lectura/escritura no encontraría su ventana de read-your-writes y una
+ * exportación lanzada justo después de una escritura propia leería de la réplica.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingExporter {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param producer recibe el consumidor de filas; debe invocarlo por cada fila y volver al terminar
+     */
+    public <T> ResponseEntity<StreamingResponseBody> export(ExportFormat format, String filename,
+                                                            List<CsvColumn<T>> columns,
+                                                            Consumer<Consumer<T>> producer) {
+        Authentication requester = SecurityContextHolder.getContext().getAuthentication();
+        StreamingResponseBody body = out -> {
+            SecurityContext previous = SecurityContextHolder.getContext();
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(requester);
+            SecurityContextHolder.setContext(context);
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                RowWriter<T> rows = format == ExportFormat.CSV ? csv(writer, columns) : ndjson(writer);
+                producer.accept(rows);
+                writer.flush();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename + "." + format.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private <T> RowWriter<T> ndjson(Writer writer) {
+        ObjectWriter json = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return new RowWriter<>(writer) {
+            @Override
+            void writeRow(T row) throws IOException {
+                json.writeValue(writer, row);
+                writer.write('\n');
+            }
+        };
+    }
+
+    private <T> RowWriter<T> csv(Writer writer, List<CsvColumn<T>> columns) throws IOException {
+        writer.write(String.join(",", columns.stream().map(c -> escape(c.header())).toList()));
+        writer.write("\r\n");
+        return new RowWriter<>(writer) {
+            @Override
+            void writeRow(T row) throws IOException {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) writer.write(',');
+                    Object value = columns.get(i).value().apply(row);
+                    if (value != null) writer.write(escape(value.toString()));
+                }
+                writer.write("\r\n");
+            }
+        };
+    }
+
+    static String escape(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private abstract static class RowWriter<T> implements Consumer<T> {
+
+        private final Writer writer;
+        private long count;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        abstract void writeRow(T row) throws IOException;
+
+        @Override
+        public void accept(T row) {
+            try {
+                writeRow(row);
+                if (++count % FLUSH_EVERY == 0) writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir la exportación", e);
+            }
+        }
+    }
+}
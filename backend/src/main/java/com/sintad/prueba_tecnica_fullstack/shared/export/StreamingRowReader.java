@@ -0,0 +1,167 @@
+package com.sintad.prueba_tecnica_fullstack.shared.export;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lee archivos NDJSON o CSV (los mismos que produce {@link StreamingExporter}) fila a fila.
+ * Solo se mantiene en memoria la fila actual, y el productor no avanza hasta que el
+ * consumidor termina con ella: quien escribe en la BD marca el ritmo de lectura.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingRowReader {
+
+    static final int MAX_ROW_CHARS = 64 * 1024;
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    /** Fila leída: {@code value} o {@code error} según se haya podido convertir. */
+    public record Row<T>(long number, T value, String error) {
+
+        public boolean isValid() {
+            return error == null;
+        }
+    }
+
+    /**
+     * @return número de filas entregadas al consumidor
+     * @throws IllegalArgumentException si una fila supera {@value #MAX_ROW_CHARS} caracteres
+     *                                  o el CSV no trae cabecera
+     */
+    public <T> long read(InputStream in, ExportFormat format, Class<T> type, Consumer<Row<T>> consumer) {
+        ObjectReader reader = objectMapper.readerFor(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        try {
+            Reader source = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_CHARS);
+            return format == ExportFormat.CSV ? readCsv(source, reader, consumer) : readNdjson(source, reader, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer la importación", e);
+        }
+    }
+
+    private <T> long readNdjson(Reader source, ObjectReader reader, Consumer<Row<T>> consumer) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        long number = 0;
+        String record;
+        while ((record = nextRecord(source, buffer, false, number + 1)) != null) {
+            if (record.isBlank()) continue;
+            number++;
+            try {
+                consumer.accept(new Row<>(number, reader.readValue(record), null));
+            } catch (JsonProcessingException e) {
+                consumer.accept(new Row<>(number, null, describe(e)));
+            }
+        }
+        return number;
+    }
+
+    private <T> long readCsv(Reader source, ObjectReader reader, Consumer<Row<T>> consumer) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        String header = nextRecord(source, buffer, true, 0);
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("El CSV debe incluir una fila de cabecera");
+        }
+        List<String> columns = splitCsv(header).stream().map(String::trim).toList();
+
+        long number = 0;
+        String record;
+        while ((record = nextRecord(source, buffer, true, number + 1)) != null) {
+            if (record.isEmpty()) continue;
+            number++;
+            List<String> fields = splitCsv(record);
+            if (fields.size() > columns.size()) {
+                consumer.accept(new Row<>(number, null,
+                        "Se esperaban " + columns.size() + " columnas y llegaron " + fields.size()));
+                continue;
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) values.put(columns.get(i), fields.get(i));
+            }
+            try {
+                consumer.accept(new Row<>(number, reader.readValue((JsonNode) objectMapper.valueToTree(values)), null));
+            } catch (JsonProcessingException e) {
+                consumer.accept(new Row<>(number, null, describe(e)));
+            }
+        }
+        return number;
+    }
+
+    /**
+     * Siguiente registro sin el salto de línea final, o {@code null} al terminar. En CSV un
+     * salto dentro de comillas pertenece al campo.
+     */
+    private static String nextRecord(Reader source, StringBuilder buffer, boolean csv, long number) throws IOException {
+        buffer.setLength(0);
+        boolean quoted = false;
+        int c;
+        while ((c = source.read()) != -1) {
+            if (c == '\n' && !quoted) {
+                break;
+            }
+            if (csv && c == '"') quoted = !quoted;
+            if (buffer.length() == MAX_ROW_CHARS) {
+                throw new IllegalArgumentException("La fila " + number + " supera el máximo de "
+                        + MAX_ROW_CHARS + " caracteres");
+            }
+            buffer.append((char) c);
+        }
+        if (c == -1 && buffer.isEmpty()) return null;
+
+        int end = buffer.length();
+        if (end > 0 && buffer.charAt(end - 1) == '\r') end--;
+        int start = buffer.length() > 0 && buffer.charAt(0) == '\uFEFF' ? 1 : 0;
+        return buffer.substring(start, end);
+    }
+
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String describe(JsonProcessingException e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            if (field != null) return "Valor inválido en el campo '" + field + "'";
+        }
+        return "Fila con formato inválido";
+    }
+}
@@ -0,0 +1,152 @@
+package com.sintad.prueba_tecnica_fullstack.shared.filter;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Versión compilada de un mapa {@code ALLOWED_FILTERS} (y de {@code SEARCH_FIELDS}):
+ * rutas, joins, nombres de parámetro y conversores quedan resueltos una vez contra
+ * el metamodelo JPA.
+ */
+public final class FilterPlan {
+
+    public static final String SEARCH_PARAM = "q";
+
+    private final Class<?> type;
+    private final Map<String, Operator> source;
+    private final List<Step> steps;
+    private final List<Step> searchSteps;
+
+    private FilterPlan(Class<?> type, Map<String, Operator> source, List<Step> steps, List<Step> searchSteps) {
+        this.type = type;
+        this.source = source;
+        this.steps = List.copyOf(steps);
+        this.searchSteps = List.copyOf(searchSteps);
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+
+    public List<Step> steps() {
+        return steps;
+    }
+
+    /** Campos de texto que cubre el parámetro {@code q}. */
+    public List<Step> searchSteps() {
+        return searchSteps;
+    }
+
+    public boolean compiledFrom(Map<String, Operator> allowed) {
+        return source == allowed;
+    }
+
+    /**
+     * @param joins        relaciones a recorrer con JOIN antes del atributo final
+     * @param foreignKey   el atributo final es el id de la relación: se navega sin JOIN
+     */
+    public record Step(String field, String paramName, Operator operator, List<String> joins, String attribute,
+                       boolean foreignKey, Class<?> javaType, Function<String, Object> parser) {
+
+        public String fromParam() {
+            return paramName + ".from";
+        }
+
+        public String toParam() {
+            return paramName + ".to";
+        }
+
+        public Object parse(String value) {
+            return ValueConverter.parse(parser, javaType, value);
+        }
+    }
+
+    public static FilterPlan compile(ManagedType<?> entity, Map<String, Operator> allowed) {
+        return compile(entity, allowed, List.of());
+    }
+
+    public static FilterPlan compile(ManagedType<?> entity, Map<String, Operator> allowed, List<String> searchFields) {
+        List<Step> steps = new ArrayList<>();
+        allowed.forEach((field, operator) ->
+                steps.add(step(entity, "ALLOWED_FILTERS", field, operator, field.replace(".", "$"))));
+
+        List<Step> searchSteps = new ArrayList<>();
+        for (String field : searchFields) {
+            searchSteps.add(step(entity, "SEARCH_FIELDS", field, Operator.SEARCH, SEARCH_PARAM));
+        }
+
+        return new FilterPlan(entity.getJavaType(), allowed, steps, searchSteps);
+    }
+
+    private static Step step(ManagedType<?> entity, String source, String field, Operator operator, String paramName) {
+        Class<?> type = entity.getJavaType();
+        String[] parts = field.split("\\.");
+        ManagedType<?> current = entity;
+        for (int i = 0; i < parts.length - 1; i++) {
+            Attribute<?, ?> relation = attribute(type, source, field, current, parts[i]);
+            if (!(relation instanceof SingularAttribute<?, ?> singular) || !singular.isAssociation()) {
+                throw invalid(type, source, field, "'" + parts[i] + "' no es una relación navegable");
+            }
+            current = (ManagedType<?>) singular.getType();
+        }
+
+        String name = parts[parts.length - 1];
+        Attribute<?, ?> target = attribute(type, source, field, current, name);
+        if (target.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+            throw invalid(type, source, field, "'" + name + "' no es un atributo simple");
+        }
+
+        Class<?> javaType = target.getJavaType();
+        Function<String, Object> parser = ValueConverter.parserFor(javaType);
+        if (operator == Operator.SEARCH && !javaType.equals(String.class)) {
+            throw invalid(type, source, field, "la búsqueda requiere un atributo de texto");
+        }
+        if (operator != Operator.LIKE && parser == null) {
+            throw invalid(type, source, field, "tipo " + javaType.getSimpleName() + " no soportado para " + operator);
+        }
+        if (isRange(operator) && !Comparable.class.isAssignableFrom(javaType) && !javaType.isPrimitive()) {
+            throw invalid(type, source, field, "tipo " + javaType.getSimpleName() + " no es comparable");
+        }
+        if (operator == Operator.DATE_EQ
+                && !javaType.equals(LocalDate.class) && !javaType.equals(LocalDateTime.class)) {
+            throw invalid(type, source, field, "DATE_EQ requiere un atributo de fecha");
+        }
+
+        boolean foreignKey = parts.length == 2
+                && target instanceof SingularAttribute<?, ?> singular && singular.isId();
+
+        return new Step(field, paramName, operator,
+                List.copyOf(Arrays.asList(parts).subList(0, parts.length - 1)), name,
+                foreignKey, javaType, parser);
+    }
+
+    private static Attribute<?, ?> attribute(Class<?> type, String source, String field, ManagedType<?> managed,
+                                             String name) {
+        try {
+            return managed.getAttribute(name);
+        } catch (IllegalArgumentException e) {
+            throw invalid(type, source, field, "atributo '" + name + "' inexistente en " + managed.getJavaType().getSimpleName());
+        }
+    }
+
+    private static boolean isRange(Operator operator) {
+        return switch (operator) {
+            case GT, GTE, LT, LTE, BETWEEN -> true;
+            default -> false;
+        };
+    }
+
+    private static IllegalStateException invalid(Class<?> type, String source, String field, String reason) {
+        return new IllegalStateException(
+                "Filtro inválido '" + field + "' en " + type.getSimpleName() + "." + source + ": " + reason);
+    }
+}
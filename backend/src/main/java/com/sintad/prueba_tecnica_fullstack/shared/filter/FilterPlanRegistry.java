@@ -0,0 +1,72 @@
+package com.sintad.prueba_tecnica_fullstack.shared.filter;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compila al arrancar los {@code ALLOWED_FILTERS} y {@code SEARCH_FIELDS} de todas las entidades; un filtro
+ * mal declarado detiene el arranque en lugar de fallar en la primera petición.
+ */
+@Component
+public class FilterPlanRegistry {
+
+    public static final String ALLOWED_FILTERS = "ALLOWED_FILTERS";
+    public static final String SEARCH_FIELDS = "SEARCH_FIELDS";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<Class<?>, FilterPlan> plans = new ConcurrentHashMap<>();
+
+    public FilterPlanRegistry(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+
+        Map<Class<?>, FilterPlan> compiled = new HashMap<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Map<String, Operator> allowed = allowedFilters(entity.getJavaType());
+            if (allowed != null) {
+                compiled.put(entity.getJavaType(),
+                        FilterPlan.compile(entity, allowed, searchFields(entity.getJavaType())));
+            }
+        }
+        plans.putAll(compiled);
+    }
+
+    public FilterPlan planFor(Class<?> type, Map<String, Operator> allowed) {
+        FilterPlan plan = plans.get(type);
+        if (plan != null && plan.compiledFrom(allowed)) {
+            return plan;
+        }
+        FilterPlan compiled = FilterPlan.compile(
+                entityManagerFactory.getMetamodel().entity(type), allowed, searchFields(type));
+        if (plan == null) {
+            plans.putIfAbsent(type, compiled);
+        }
+        return compiled;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Operator> allowedFilters(Class<?> type) {
+        Field field = ReflectionUtils.findField(type, ALLOWED_FILTERS, Map.class);
+        if (field == null || !Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        return (Map<String, Operator>) ReflectionUtils.getField(field, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> searchFields(Class<?> type) {
+        Field field = ReflectionUtils.findField(type, SEARCH_FIELDS, List.class);
+        if (field == null || !Modifier.isStatic(field.getModifiers())) {
+            return List.of();
+        }
+        return (List<String>) ReflectionUtils.getField(field, null);
+    }
+}
@@ -1,116 +1,188 @@
 package com.sintad.prueba_tecnica_fullstack.shared.filter;
 
+import com.sintad.prueba_tecnica_fullstack.shared.util.CriteriaUtil;
 import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMap;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 
 @Component
+@RequiredArgsConstructor
 public class FilterSpecBuilder<T> {
 
+    private static final char LIKE_ESCAPE = '\\';
+    private static final int MAX_SEARCH_TERMS = 5;
+
+    private final FilterPlanRegistry planRegistry;
+
     public Specification<T> build(Class<T> type, Map<String, Operator> allowed, MultiValueMap<String, String> params) {
-        return (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        FilterPlan plan = planRegistry.planFor(type, allowed);
+        List<Bound> bound = bind(plan, params);
+        List<SearchBound> searches = bindSearches(plan, params);
 
-            allowed.forEach((field, operator) -> {
-                String paramName = field.replace(".", "$"); 
-                String value = params.getFirst(paramName);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(bound.size() + searches.size());
 
-                if (value == null) return;
+            for (SearchBound search : searches) {
+                predicates.add(searchPredicate(root, cb, search));
+            }
 
-                Path<?> path = getPath(root, field);
+            for (Bound filter : bound) {
+                Path<?> path = getPath(root, filter.step());
 
-                switch (operator) {
+                switch (filter.step().operator()) {
                     case LIKE -> predicates.add(
-                            cb.like(cb.lower(path.as(String.class)), "%" + value.toLowerCase() + "%"));
+                            cb.like(cb.lower(path.as(String.class)), (String) filter.value()));
 
-                    case EQ -> predicates.add(cb.equal(path, cast(path, value)));
+                    case EQ -> predicates.add(cb.equal(path, filter.value()));
 
                     case GT -> predicates.add(cb.greaterThan(
                             (Expression<? extends Comparable>) path,
-                            (Comparable) cast(path, value)));
+                            (Comparable) filter.value()));
 
                     case GTE -> predicates.add(cb.greaterThanOrEqualTo(
                             (Expression<? extends Comparable>) path,
-                            (Comparable) cast(path, value)));
+                            (Comparable) filter.value()));
 
                     case LT -> predicates.add(cb.lessThan(
                             (Expression<? extends Comparable>) path,
-                            (Comparable) cast(path, value)));
+                            (Comparable) filter.value()));
 
                     case LTE -> predicates.add(cb.lessThanOrEqualTo(
                             (Expression<? extends Comparable>) path,
-                            (Comparable) cast(path, value)));
+                            (Comparable) filter.value()));
 
                     case IN -> {
                         CriteriaBuilder.In<Object> in = cb.in(path);
-                        Arrays.stream(value.split(","))
-                                .map(v -> cast(path, v.trim()))
-                                .forEach(in::value);
+                        ((List<?>) filter.value()).forEach(in::value);
                         predicates.add(in);
                     }
 
                     case BETWEEN -> {
-                        String from = params.getFirst(paramName + ".from");
-                        String to = params.getFirst(paramName + ".to");
-
-                        if (from != null && to != null) {
-                            predicates.add(cb.between(
-                                    (Expression<? extends Comparable>) path,
-                                    (Comparable) cast(path, from),
-                                    (Comparable) cast(path, to)
-                            ));
-                        } else if (from != null) {
-                            predicates.add(cb.greaterThanOrEqualTo(
-                                    (Expression<? extends Comparable>) path,
-                                    (Comparable) cast(path, from)
-                            ));
-                        } else if (to != null) {
-                            predicates.add(cb.lessThanOrEqualTo(
-                                    (Expression<? extends Comparable>) path,
-                                    (Comparable) cast(path, to)
-                            ));
+                        Expression<? extends Comparable> comparable = (Expression<? extends Comparable>) path;
+                        if (filter.value() != null && filter.to() != null) {
+                            predicates.add(cb.between(comparable, (Comparable) filter.value(), (Comparable) filter.to()));
+                        } else if (filter.value() != null) {
+                            predicates.add(cb.greaterThanOrEqualTo(comparable, (Comparable) filter.value()));
+                        } else {
+                            predicates.add(cb.lessThanOrEqualTo(comparable, (Comparable) filter.to()));
                         }
                     }
 
-                    case DATE_EQ -> predicates.add(cb.equal(path.as(LocalDate.class), LocalDate.parse(value)));
+                    case DATE_EQ -> predicates.add(cb.equal(path.as(LocalDate.class), filter.value()));
 
                     default -> {}
                 }
-            });
+            }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
-    private Path<?> getPath(Root<T> root, String field) {
-        if (!field.contains(".")) return root.get(field);
-        String[] parts = field.split("\\.");
-        Path<?> path = root;
-        for (String p : parts) path = path.get(p);
-        return path;
+    /**
+     * Convierte los parámetros de la petición una sola vez: los errores de conversión
+     * se reportan aquí (400) y el count y la consulta de datos reutilizan los valores.
+     */
+    private List<Bound> bind(FilterPlan plan, MultiValueMap<String, String> params) {
+        List<Bound> bound = new ArrayList<>();
+
+        for (FilterPlan.Step step : plan.steps()) {
+            if (step.operator() == Operator.SEARCH) continue;
+            if (step.operator() == Operator.BETWEEN) {
+                String from = params.getFirst(step.fromParam());
+                String to = params.getFirst(step.toParam());
+                if (from != null || to != null) {
+                    bound.add(new Bound(step,
+                            from != null ? step.parse(from) : null,
+                            to != null ? step.parse(to) : null));
+                }
+                continue;
+            }
+
+            String value = params.getFirst(step.paramName());
+            if (value == null) continue;
+
+            Object parsed = switch (step.operator()) {
+                case LIKE -> "%" + value.toLowerCase() + "%";
+                case IN -> Arrays.stream(value.split(","))
+                        .map(v -> step.parse(v.trim()))
+                        .toList();
+                case DATE_EQ -> ValueConverter.parse(LocalDate::parse, LocalDate.class, value);
+                default -> step.parse(value);
+            };
+            bound.add(new Bound(step, parsed, null));
+        }
+
+        return bound;
+    }
+
+    private List<SearchBound> bindSearches(FilterPlan plan, MultiValueMap<String, String> params) {
+        List<SearchBound> searches = new ArrayList<>();
+
+        if (!plan.searchSteps().isEmpty()) {
+            List<String> patterns = searchPatterns(params.getFirst(FilterPlan.SEARCH_PARAM));
+            if (!patterns.isEmpty()) searches.add(new SearchBound(plan.searchSteps(), patterns));
+        }
+
+        for (FilterPlan.Step step : plan.steps()) {
+            if (step.operator() != Operator.SEARCH) continue;
+            List<String> patterns = searchPatterns(params.getFirst(step.paramName()));
+            if (!patterns.isEmpty()) searches.add(new SearchBound(List.of(step), patterns));
+        }
+
+        return searches;
+    }
+
+    /**
+     * Cada término debe aparecer en alguno de los campos. El predicado queda como
+     * {@code lower(col) like '%término%'}, que en PostgreSQL resuelve el índice
+     * trigram de {@code SearchIndexInitializer} y en H2 se evalúa igual sin índice.
+     */
+    private Predicate searchPredicate(Root<T> root, CriteriaBuilder cb, SearchBound search) {
+        List<Predicate> terms = new ArrayList<>(search.patterns().size());
+        for (String pattern : search.patterns()) {
+            Predicate[] fields = search.steps().stream()
+                    .map(step -> cb.like(cb.lower((Expression<String>) getPath(root, step)), pattern, LIKE_ESCAPE))
+                    .toArray(Predicate[]::new);
+            terms.add(cb.or(fields));
+        }
+        return cb.and(terms.toArray(new Predicate[0]));
+    }
+
+    private static List<String> searchPatterns(String value) {
+        if (value == null || value.isBlank()) return List.of();
+        return Arrays.stream(value.trim().toLowerCase().split("\\s+"))
+                .distinct()
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> "%" + escapeLike(term) + "%")
+                .toList();
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
-    private Object cast(Path<?> path, String value) {
-        Class<?> type = path.getJavaType();
-        try {
-            if (type.equals(String.class)) return value;
-            if (type.equals(Integer.class) || type.equals(int.class)) return Integer.valueOf(value);
-            if (type.equals(Long.class) || type.equals(long.class)) return Long.valueOf(value);
-            if (type.equals(Double.class) || type.equals(double.class)) return Double.valueOf(value);
-            if (type.equals(BigDecimal.class)) return new BigDecimal(value);
-            if (type.equals(Boolean.class) || type.equals(boolean.class)) return Boolean.valueOf(value);
-            if (type.equals(LocalDate.class)) return LocalDate.parse(value);
-            if (type.equals(LocalDateTime.class)) return LocalDateTime.parse(value);
-            if (Enum.class.isAssignableFrom(type)) return Enum.valueOf((Class<Enum>) type, value);
-        } catch (Exception e) {
-            throw new IllegalArgumentException("No se pudo convertir el valor '" + value + "' a tipo " + type.getSimpleName());
+    private Path<?> getPath(Root<T> root, FilterPlan.Step step) {
+        if (step.joins().isEmpty()) return root.get(step.attribute());
+
+        if (step.foreignKey()) {
+            return root.get(step.joins().get(0)).get(step.attribute());
+        }
+
+        From<?, ?> from = root;
+        for (String relation : step.joins()) {
+            from = CriteriaUtil.joinOnce(from, relation, JoinType.INNER);
         }
-        return value;
+        return from.get(step.attribute());
+    }
+
+    private record Bound(FilterPlan.Step step, Object value, Object to) {
+    }
+
+    private record SearchBound(List<FilterPlan.Step> steps, List<String> patterns) {
     }
 }
@@ -1,5 +1,5 @@
 package com.sintad.prueba_tecnica_fullstack.shared.filter;
 
 public enum Operator {
-    EQ, LIKE, GT, LT, GTE, LTE, IN, BETWEEN, DATE_EQ
+    EQ, LIKE, GT, LT, GTE, LTE, IN, BETWEEN, DATE_EQ, SEARCH
 }
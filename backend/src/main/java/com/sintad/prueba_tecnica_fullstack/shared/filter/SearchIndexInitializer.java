@@ -0,0 +1,51 @@
+package com.sintad.prueba_tecnica_fullstack.shared.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Crea los índices trigram de búsqueda cuando la BD es PostgreSQL. El esquema lo
+ * mantiene {@code ddl-auto}, así que se ejecuta al terminar el arranque; en otras
+ * BD (H2 en tests) la búsqueda funciona igual, sin índice.
+ */
+@Component
+public class SearchIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexInitializer.class);
+    private static final String SCRIPT = "db/search-indexes-postgresql.sql";
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public SearchIndexInitializer(DataSource dataSource,
+                                  @Value("${app.search.create-indexes:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (!enabled) return;
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+            new ResourceDatabasePopulator(new ClassPathResource(SCRIPT)).populate(connection);
+            log.info("Índices de búsqueda verificados ({})", SCRIPT);
+        } catch (SQLException | RuntimeException e) {
+            // Sin pg_trgm (p. ej. sin permisos para CREATE EXTENSION) la búsqueda sigue funcionando sin índice
+            log.warn("No se pudieron crear los índices de búsqueda: {}", e.getMessage());
+        }
+    }
+}
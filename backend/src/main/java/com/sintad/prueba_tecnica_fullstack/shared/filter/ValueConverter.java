@@ -0,0 +1,42 @@
+package com.sintad.prueba_tecnica_fullstack.shared.filter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+public final class ValueConverter {
+
+    private ValueConverter() {
+    }
+
+    public static Object convert(Class<?> type, String value) {
+        Function<String, Object> parser = parserFor(type);
+        return parser != null ? parse(parser, type, value) : value;
+    }
+
+    /**
+     * Resuelve una sola vez el conversor para un tipo; {@code null} si el tipo no es soportado.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Function<String, Object> parserFor(Class<?> type) {
+        if (type.equals(String.class)) return value -> value;
+        if (type.equals(Integer.class) || type.equals(int.class)) return Integer::valueOf;
+        if (type.equals(Long.class) || type.equals(long.class)) return Long::valueOf;
+        if (type.equals(Double.class) || type.equals(double.class)) return Double::valueOf;
+        if (type.equals(BigDecimal.class)) return BigDecimal::new;
+        if (type.equals(Boolean.class) || type.equals(boolean.class)) return Boolean::valueOf;
+        if (type.equals(LocalDate.class)) return LocalDate::parse;
+        if (type.equals(LocalDateTime.class)) return LocalDateTime::parse;
+        if (Enum.class.isAssignableFrom(type)) return value -> Enum.valueOf((Class<Enum>) type, value);
+        return null;
+    }
+
+    public static Object parse(Function<String, Object> parser, Class<?> type, String value) {
+        try {
+            return parser.apply(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("No se pudo convertir el valor '" + value + "' a tipo " + type.getSimpleName());
+        }
+    }
+}
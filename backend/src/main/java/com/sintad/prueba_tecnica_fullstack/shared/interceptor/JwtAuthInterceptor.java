@@ -1,23 +1,19 @@
 package com.sintad.prueba_tecnica_fullstack.shared.interceptor;
 
+import com.sintad.prueba_tecnica_fullstack.security.JwtUtil;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-
+/**
+ * Autorización por rol sobre los claims que {@code JwtAuthenticationFilter} ya verificó
+ * y dejó en {@link JwtUtil#CLAIMS_ATTRIBUTE}; aquí no se vuelve a parsear el token.
+ */
 @Component
 public class JwtAuthInterceptor implements HandlerInterceptor {
 
-    private final Key secretKey = Keys.hmacShaKeyFor(
-            "mysupersecurekeymysupersecurekey123456".getBytes(StandardCharsets.UTF_8)
-    );
-
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         String authHeader = request.getHeader("Authorization");
@@ -27,30 +23,21 @@ public class JwtAuthInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        try {
-            String token = authHeader.substring(7);
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            String role = claims.get("role", String.class);
-            String path = request.getRequestURI();
-
-
-            if (path.startsWith("/api/categories") && !"ADMIN".equalsIgnoreCase(role)) {
-                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                response.getWriter().write("Acceso denegado: se requiere rol ADMIN para esta operación");
-                return false;
-            }
-
-            return true;
-
-        } catch (Exception e) {
+        if (!(request.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE) instanceof Claims claims)) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Acceso no autorizado: token inválido o expirado");
             return false;
         }
+
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        String path = request.getRequestURI();
+
+        if (path.startsWith("/api/categories") && !"ADMIN".equalsIgnoreCase(role)) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.getWriter().write("Acceso denegado: se requiere rol ADMIN para esta operación");
+            return false;
+        }
+
+        return true;
     }
 }
@@ -1,30 +0,0 @@
-package com.sintad.prueba_tecnica_fullstack.shared.interceptor;
-
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
-
-@Component
-public class RequestLogInterceptor implements HandlerInterceptor {
-
-    private static final Logger log = LoggerFactory.getLogger(RequestLogInterceptor.class);
-
-    @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        request.setAttribute("startTime", System.currentTimeMillis());
-        log.info("➡ [{}] {}", request.getMethod(), request.getRequestURI());
-        return true;
-    }
-
-    @Override
-    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
-                                Object handler, Exception ex) {
-        long startTime = (long) request.getAttribute("startTime");
-        long duration = System.currentTimeMillis() - startTime;
-        log.info("⬅ [{}] {} | status={} | {} ms",
-                request.getMethod(), request.getRequestURI(), response.getStatus(), duration);
-    }
-}
@@ -0,0 +1,33 @@
+package com.sintad.prueba_tecnica_fullstack.shared.pagination;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición opaca para paginación por cursor (keyset): último valor del campo de
+ * ordenamiento más el {@code id} del último registro entregado.
+ */
+public record Cursor(String sort, Sort.Direction direction, Long id, String value) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = direction.name() + SEPARATOR + id + SEPARATOR + sort + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new Cursor(parts[2], Sort.Direction.fromString(parts[0]), Long.valueOf(parts[1]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
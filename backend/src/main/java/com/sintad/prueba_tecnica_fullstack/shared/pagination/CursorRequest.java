@@ -0,0 +1,22 @@
+package com.sintad.prueba_tecnica_fullstack.shared.pagination;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Parámetros de una consulta por cursor. {@code after} es nulo en la primera página.
+ */
+public record CursorRequest(String sortField, Sort.Direction direction, int size, Cursor after) {
+
+    public static final String ID = "id";
+
+    public CursorRequest {
+        if (after != null && (!after.sort().equals(sortField) || after.direction() != direction)) {
+            throw new IllegalArgumentException("El cursor no corresponde al ordenamiento solicitado");
+        }
+    }
+
+    public Sort sort() {
+        Sort sort = Sort.by(direction, sortField);
+        return ID.equals(sortField) ? sort : sort.and(Sort.by(direction, ID));
+    }
+}
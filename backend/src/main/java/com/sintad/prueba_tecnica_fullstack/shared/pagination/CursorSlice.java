@@ -0,0 +1,44 @@
+package com.sintad.prueba_tecnica_fullstack.shared.pagination;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Porción de resultados obtenida por cursor: sin conteo total, solo el cursor
+ * de la siguiente página cuando existen más registros.
+ */
+public record CursorSlice<T>(List<T> content, int size, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Construye la porción a partir de {@code size + 1} filas leídas: la fila extra
+     * solo indica que existe una página siguiente y no se devuelve.
+     */
+    public static <E, T> CursorSlice<T> of(List<E> rows, CursorRequest request, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > request.size();
+        List<E> page = hasNext ? rows.subList(0, request.size()) : rows;
+
+        String next = null;
+        if (hasNext) {
+            E last = page.get(page.size() - 1);
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(last);
+            Object id = wrapper.getPropertyValue(CursorRequest.ID);
+            Object value = wrapper.getPropertyValue(request.sortField());
+            // Los SORTABLE_FIELDS de cada entidad excluyen las columnas que admiten nulos
+            if (value == null) {
+                throw new IllegalStateException(
+                        "El campo '" + request.sortField() + "' tiene valores nulos y no admite paginación por cursor");
+            }
+            next = new Cursor(request.sortField(), request.direction(), ((Number) id).longValue(), value.toString())
+                    .encode();
+        }
+
+        return new CursorSlice<>(page.stream().map(mapper).toList(), request.size(), next);
+    }
+}
@@ -0,0 +1,61 @@
+package com.sintad.prueba_tecnica_fullstack.shared.pagination;
+
+import com.sintad.prueba_tecnica_fullstack.shared.filter.ValueConverter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class KeysetSpecs {
+
+    private KeysetSpecs() {
+    }
+
+    /**
+     * Predicado de búsqueda "seek": registros estrictamente posteriores al cursor
+     * según (campo de orden, id). Se combina con la especificación de filtros.
+     */
+    public static <T> Specification<T> after(CursorRequest request) {
+        Cursor cursor = request.after();
+        if (cursor == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        boolean asc = request.direction() == Sort.Direction.ASC;
+
+        return (root, query, cb) -> {
+            Path<Long> id = root.get(CursorRequest.ID);
+            Predicate idAfter = beyond(cb, id, cursor.id(), asc);
+            if (CursorRequest.ID.equals(cursor.sort())) {
+                return idAfter;
+            }
+
+            Path<?> key = path(root, cursor.sort());
+            Object value = ValueConverter.convert(key.getJavaType(), cursor.value());
+            return cb.or(
+                    beyond(cb, key, value, asc),
+                    cb.and(cb.equal(key, value), idAfter));
+        };
+    }
+
+    /**
+     * Resuelve rutas con punto ({@code category.name}) igual que el {@code BeanWrapper} de
+     * {@link CursorSlice} y el {@code Sort} de la consulta: una navegación por segmento.
+     */
+    static Path<?> path(Path<?> root, String field) {
+        Path<?> path = root;
+        for (String segment : field.split("\\.")) {
+            path = path.get(segment);
+        }
+        return path;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Expression<?> expression, Object value, boolean asc) {
+        Expression<Comparable> comparable = (Expression<Comparable>) expression;
+        return asc
+                ? cb.greaterThan(comparable, (Comparable) value)
+                : cb.lessThan(comparable, (Comparable) value);
+    }
+}
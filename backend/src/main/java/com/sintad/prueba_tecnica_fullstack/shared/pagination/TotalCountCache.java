@@ -0,0 +1,35 @@
+package com.sintad.prueba_tecnica_fullstack.shared.pagination;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Totales aproximados para {@code total=estimate}: el {@code count(*)} de cada firma
+ * de filtros se reutiliza durante un TTL corto en lugar de ejecutarse en cada página.
+ */
+@Component
+public class TotalCountCache {
+
+    private final Cache<String, Long> totals;
+
+    public TotalCountCache(@Value("${app.pagination.total-cache.ttl:30s}") Duration ttl,
+                           @Value("${app.pagination.total-cache.max-size:10000}") long maxSize) {
+        this.totals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public <T> Page<T> withEstimatedTotal(String signature, Slice<T> slice, LongSupplier counter) {
+        long total = totals.get(signature, key -> counter.getAsLong());
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+}
@@ -0,0 +1,14 @@
+package com.sintad.prueba_tecnica_fullstack.shared.pagination;
+
+public enum TotalMode {
+    EXACT, ESTIMATE, NONE;
+
+    public static TotalMode from(String value) {
+        if (value == null || value.isBlank()) return EXACT;
+        try {
+            return TotalMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor de 'total' inválido: " + value + " (use exact, estimate o none)");
+        }
+    }
+}
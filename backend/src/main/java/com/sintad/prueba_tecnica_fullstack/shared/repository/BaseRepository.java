@@ -0,0 +1,37 @@
+package com.sintad.prueba_tecnica_fullstack.shared.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.stream.Stream;
+
+@NoRepositoryBean
+public interface BaseRepository<T, ID> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
+
+    /**
+     * Igual que {@code findAll(spec, pageable)} pero sin la consulta {@code count(*)}:
+     * lee una fila extra para saber si existe página siguiente.
+     */
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable);
+
+    /**
+     * Página proyectada a DTO: aplica la misma {@code Specification} y el mismo
+     * {@code count(*)}, pero selecciona solo las columnas de la proyección.
+     */
+    <R> Page<R> findAll(Specification<T> spec, Pageable pageable, TupleProjection<T, R> projection);
+
+    /** Variante sin {@code count(*)} de la página proyectada. */
+    <R> Slice<R> findSlice(Specification<T> spec, Pageable pageable, TupleProjection<T, R> projection);
+
+    /**
+     * Recorre la consulta proyectada con un cursor de solo avance y {@code fetchSize} fijo.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    <R> Stream<R> stream(Specification<T> spec, Sort sort, TupleProjection<T, R> projection, int fetchSize);
+}
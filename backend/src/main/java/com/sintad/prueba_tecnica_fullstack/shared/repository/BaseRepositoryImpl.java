@@ -0,0 +1,116 @@
+package com.sintad.prueba_tecnica_fullstack.shared.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BaseRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> implements BaseRepository<T, ID> {
+
+    private final EntityManager entityManager;
+
+    public BaseRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+        TypedQuery<T> query = getQuery(spec, pageable.getSort());
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        List<T> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public <R> Page<R> findAll(Specification<T> spec, Pageable pageable, TupleProjection<T, R> projection) {
+        TypedQuery<Tuple> query = getTupleQuery(spec, pageable.getSort(), projection);
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(map(query.getResultList(), projection));
+        }
+
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(map(query.getResultList(), projection), pageable, () -> count(spec));
+    }
+
+    @Override
+    public <R> Slice<R> findSlice(Specification<T> spec, Pageable pageable, TupleProjection<T, R> projection) {
+        TypedQuery<Tuple> query = getTupleQuery(spec, pageable.getSort(), projection);
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(map(query.getResultList(), projection), pageable, false);
+        }
+
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        List<R> rows = map(query.getResultList(), projection);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public <R> Stream<R> stream(Specification<T> spec, Sort sort, TupleProjection<T, R> projection, int fetchSize) {
+        return getTupleQuery(spec, sort, projection)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(projection::map);
+    }
+
+    /**
+     * El predicado se arma antes que la selección para que la proyección reutilice
+     * los joins que ya creó la {@code Specification}.
+     */
+    private <R> TypedQuery<Tuple> getTupleQuery(Specification<T> spec, Sort sort, TupleProjection<T, R> projection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(getDomainClass());
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) query.where(predicate);
+        }
+
+        query.multiselect(projection.select(root, cb));
+
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query);
+    }
+
+    private static <R> List<R> map(List<Tuple> tuples, TupleProjection<?, R> projection) {
+        return tuples.stream().map(projection::map).toList();
+    }
+}
@@ -0,0 +1,19 @@
+package com.sintad.prueba_tecnica_fullstack.shared.repository;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.List;
+
+/**
+ * Proyección de una consulta Criteria directamente a un DTO: define las columnas a
+ * seleccionar y cómo construir el resultado desde la tupla, sin hidratar entidades.
+ */
+public interface TupleProjection<T, R> {
+
+    List<Selection<?>> select(Root<T> root, CriteriaBuilder cb);
+
+    R map(Tuple tuple);
+}
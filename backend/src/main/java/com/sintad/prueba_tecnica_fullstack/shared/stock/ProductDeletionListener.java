@@ -0,0 +1,29 @@
+package com.sintad.prueba_tecnica_fullstack.shared.stock;
+
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Listener JPA que saca del {@link StockLedger} los productos dados de baja, tanto por borrado
+ * lógico como al eliminarse su categoría. Sin ledger activo no hace nada.
+ */
+public class ProductDeletionListener {
+
+    private final ObjectProvider<StockLedger> stockLedger;
+
+    public ProductDeletionListener(ObjectProvider<StockLedger> stockLedger) {
+        this.stockLedger = stockLedger;
+    }
+
+    @PostUpdate
+    void updated(Product product) {
+        if (product.getDeletedAt() != null) removed(product);
+    }
+
+    @PostRemove
+    void removed(Product product) {
+        stockLedger.ifAvailable(ledger -> ledger.discardAfterCommit(product.getId()));
+    }
+}
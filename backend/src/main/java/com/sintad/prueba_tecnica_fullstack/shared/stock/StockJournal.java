@@ -0,0 +1,213 @@
+package com.sintad.prueba_tecnica_fullstack.shared.stock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Diario local, solo de anexado, con los ajustes de stock aún no volcados a la BD. Se escribe por
+ * segmentos numerados: {@link #rotate()} sella el activo y abre el siguiente, y los sellados se
+ * borran cuando sus ajustes ya están confirmados. Cada registro lleva su CRC, así que un registro
+ * cortado por una caída a mitad de escritura se descarta al releer.
+ */
+public class StockJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StockJournal.class);
+
+    // productId (8) + delta (4) + crc32 (4)
+    private static final int RECORD_SIZE = 16;
+    private static final String PREFIX = "stock-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final String id;
+    // ReentrantLock y no synchronized: con hilos virtuales la escritura no fija el hilo portador
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel active;
+    private long activeSequence;
+    private boolean activeEmpty = true;
+
+    /**
+     * @param fsync si es {@code true} cada registro se fuerza a disco (sobrevive a un corte de luz);
+     *              si no, basta con que llegue al sistema operativo (sobrevive a la caída del proceso)
+     */
+    public StockJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            this.id = readOrCreateId();
+            this.activeSequence = sequences().stream().mapToLong(Long::longValue).max().orElse(0) + 1;
+            this.active = open(activeSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el diario de stock en " + directory, e);
+        }
+    }
+
+    /** Identifica este diario en la tabla de checkpoints; se conserva entre reinicios. */
+    public String id() {
+        return id;
+    }
+
+    /** Secuencia del último segmento sellado; todo lo anterior al activo. */
+    public long lastSealed() {
+        lock.lock();
+        try {
+            return activeSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(long productId, int delta) {
+        lock.lock();
+        try {
+            crc.reset();
+            record.clear();
+            record.putLong(productId).putInt(delta);
+            crc.update(record.array(), 0, RECORD_SIZE - 4);
+            record.putInt((int) crc.getValue()).flip();
+            while (record.hasRemaining()) active.write(record);
+            if (fsync) active.force(false);
+            activeEmpty = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el diario de stock", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Sella el segmento activo (si tiene registros) y devuelve la secuencia del último sellado. */
+    public long rotate() {
+        lock.lock();
+        try {
+            if (!activeEmpty) {
+                active.force(false);
+                active.close();
+                active = open(++activeSequence);
+                activeEmpty = true;
+            }
+            return activeSequence - 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo rotar el diario de stock", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Suma por producto de los segmentos sellados con secuencia mayor que {@code checkpoint}. Los
+     * registros de un producto en segmentos hasta su entrada de {@code resets} se omiten: una
+     * escritura absoluta confirmada los reemplazó.
+     */
+    public Map<Long, Long> replay(long checkpoint, Map<Long, Long> resets) {
+        Map<Long, Long> deltas = new HashMap<>();
+        long sealed = lastSealed();
+        for (long sequence : sequences()) {
+            if (sequence <= checkpoint || sequence > sealed) continue;
+            readSegment(sequence, resets, deltas);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    private void readSegment(long sequence, Map<Long, Long> resets, Map<Long, Long> deltas) {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(segment(sequence)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el segmento " + sequence + " del diario de stock", e);
+        }
+        CRC32 check = new CRC32();
+        while (buffer.remaining() >= RECORD_SIZE) {
+            int start = buffer.position();
+            long productId = buffer.getLong();
+            int delta = buffer.getInt();
+            check.reset();
+            check.update(buffer.array(), start, RECORD_SIZE - 4);
+            if (buffer.getInt() != (int) check.getValue()) {
+                log.warn("Registro corrupto en el segmento {} del diario de stock; se ignora el resto", sequence);
+                return;
+            }
+            if (sequence > resets.getOrDefault(productId, 0L)) deltas.merge(productId, (long) delta, Long::sum);
+        }
+        if (buffer.hasRemaining()) {
+            log.warn("Registro incompleto al final del segmento {} del diario de stock; se ignora", sequence);
+        }
+    }
+
+    /** Borra los segmentos sellados hasta {@code sequence} inclusive. */
+    public void deleteUpTo(long sequence) {
+        long sealed = Math.min(sequence, lastSealed());
+        for (long existing : sequences()) {
+            if (existing > sealed) continue;
+            try {
+                Files.deleteIfExists(segment(existing));
+            } catch (IOException e) {
+                // El checkpoint de la BD evita reaplicarlo; se reintenta en el siguiente volcado
+                log.warn("No se pudo borrar el segmento {} del diario de stock", existing, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            active.force(false);
+            active.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el diario de stock", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FileChannel open(long sequence) throws IOException {
+        return FileChannel.open(segment(sequence), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path segment(long sequence) {
+        return directory.resolve(PREFIX + String.format("%019d", sequence) + SUFFIX);
+    }
+
+    private List<Long> sequences() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo listar el diario de stock en " + directory, e);
+        }
+    }
+
+    private String readOrCreateId() throws IOException {
+        Path file = directory.resolve("journal.id");
+        if (Files.exists(file)) return Files.readString(file, StandardCharsets.UTF_8).trim();
+        String created = UUID.randomUUID().toString();
+        Files.writeString(file, created, StandardCharsets.UTF_8);
+        return created;
+    }
+}
@@ -0,0 +1,627 @@
+package com.sintad.prueba_tecnica_fullstack.shared.stock;
+
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangedEvent;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.ConflictException;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stock en memoria con escritura diferida para los productos con muchos ajustes por segundo. Cada
+ * ajuste es un CAS sobre el contador del producto (sin bloqueos ni viaje a la BD) y se anota en
+ * el {@link StockJournal} antes de responder. Cada {@code flush-interval} se vuelca a
+ * {@code products.stock} la suma de ajustes por producto en una sola transacción, que también
+ * guarda hasta qué segmento del diario está aplicado: tras una caída se reaplica solo lo que falta.
+ * <p>
+ * Tras cada volcado se relee el stock de la BD y se corrige la diferencia con la vista en memoria,
+ * de modo que los cambios hechos por otra vía se reflejan en el siguiente ciclo. El volcado nunca
+ * deja el stock bajo cero: si otra escritura lo redujo entre tanto, la fila se rechaza, se cuenta
+ * en {@code stock.ledger.flush.rejected} y la vista se corrige con el stock de la BD. Una escritura
+ * absoluta (PUT, actualización masiva) llama a {@link #replace(Long)} en su transacción: el valor
+ * escrito sustituye a los ajustes aún sin volcar en vez de sumarse a ellos, también tras una caída.
+ * <p>
+ * La lectura de un producto superpone el stock en memoria con {@link #peek(Long)} y lo incluye en
+ * su ETag; los listados y las exportaciones leen la BD y van hasta un {@code flush-interval} por detrás.
+ * <p>
+ * Cada instancia lleva su propia vista: pensado para una sola instancia o para repartir los
+ * productos entre nodos. Al borrarse un producto su vista se descarta y los ajustes vuelven a
+ * consultar la BD, que ya no lo encuentra.
+ */
+@Component
+@ConditionalOnProperty(name = "app.stock.write-behind.enabled", havingValue = "true")
+public class StockLedger implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    public static final String NAME = "stock.ledger";
+
+    private static final int FLOOR = 0;
+    private static final int READ_CHUNK = 500;
+    private static final long SEAL_PARK_NANOS = 1_000_000;
+    private static final Duration REPLACE_WAIT = Duration.ofSeconds(5);
+    private static final String UPDATE_SQL = "update products set stock = stock + ?, updated_at = ?, "
+            + "version = version + 1 where id = ? and deleted_at is null and stock + ? >= " + FLOOR;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockJournal journal;
+    private final Duration flushInterval;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+    private final Counter flushRejected;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    // Lectura: escrituras absolutas en curso, desde replace() hasta el fin de su transacción.
+    // Escritura: el volcado, que no empieza mientras haya alguna
+    private final ReentrantReadWriteLock volumeLock = new ReentrantReadWriteLock();
+    // Los reemplazos sellan la barrera de uno en uno
+    private final ReentrantLock replaceLock = new ReentrantLock();
+    // Barrera del volcado: los ajustes solo cuentan su entrada (LongAdder, sin contención entre
+    // hilos) y el volcado espera a que no quede ninguno a medias antes de sellar el diario. Las
+    // esperas aparcan el hilo: el último ajuste en salir despierta al volcado y este a los demás
+    private final LongAdder inFlight = new LongAdder();
+    private final ReentrantLock gate = new ReentrantLock();
+    private final Condition unsealed = gate.newCondition();
+    private volatile boolean sealing;
+    private volatile Thread sealer;
+    private volatile ScheduledExecutorService flusher;
+
+    public StockLedger(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${app.stock.write-behind.journal-dir:data/stock-journal}") Path journalDir,
+                       @Value("${app.stock.write-behind.fsync:false}") boolean fsync,
+                       @Value("${app.stock.write-behind.flush-interval:500ms}") Duration flushInterval,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.journal = new StockJournal(journalDir, fsync);
+        this.flushInterval = flushInterval;
+        Gauge.builder(NAME + ".products", slots, Map::size)
+                .description("Productos con stock en memoria")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(NAME + ".flush")
+                .description("Duración del volcado de ajustes a la BD")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder(NAME + ".flush.failures")
+                .description("Volcados fallidos; los ajustes se reintentan en el siguiente")
+                .register(meterRegistry);
+        this.flushRejected = Counter.builder(NAME + ".flush.rejected")
+                .description("Ajustes no volcados porque dejarían el stock de la BD bajo cero")
+                .register(meterRegistry);
+        jdbcTemplate.execute("create table if not exists stock_journal_checkpoints ("
+                + "journal_id varchar(36) primary key, segment bigint not null)");
+        // Sin clave única: dos reemplazos concurrentes del mismo producto solo insertan
+        jdbcTemplate.execute("create table if not exists stock_journal_resets ("
+                + "journal_id varchar(36) not null, product_id bigint not null, segment bigint not null)");
+        recover();
+    }
+
+    /**
+     * Aplica el ajuste en memoria y lo anota en el diario. Devuelve el stock resultante; la BD lo
+     * refleja tras el siguiente volcado.
+     */
+    public int adjust(Long productId, int delta) {
+        while (true) {
+            // La consulta a la BD queda fuera de la sección contada: el volcado no la espera
+            Slot slot = slot(productId);
+            enter();
+            try {
+                // Entre tanto el volcado pudo liberar la vista, o el producto se borró
+                if (slots.get(productId) != slot) continue;
+                if (delta == 0) return slot.available();
+                int available = slot.reserve(delta);
+                // El diario sí va dentro: un registro queda en un segmento sellado si y solo si su
+                // ajuste entró en lo que tomó ese volcado
+                try {
+                    journal.append(productId, delta);
+                } catch (RuntimeException e) {
+                    slot.cancel(delta);
+                    throw e;
+                }
+                return available;
+            } finally {
+                exit();
+            }
+        }
+    }
+
+    private Slot slot(Long productId) {
+        Slot slot = slots.get(productId);
+        if (slot != null) return slot;
+        // Fuera de computeIfAbsent para no retener el bin del mapa durante la consulta
+        Slot loaded = new Slot(load(productId));
+        slot = slots.putIfAbsent(productId, loaded);
+        return slot == null ? loaded : slot;
+    }
+
+    private void enter() {
+        while (true) {
+            inFlight.increment();
+            if (!sealing) return;
+            exit();
+            gate.lock();
+            try {
+                while (sealing) unsealed.awaitUninterruptibly();
+            } finally {
+                gate.unlock();
+            }
+        }
+    }
+
+    private void exit() {
+        inFlight.decrement();
+        if (sealing) LockSupport.unpark(sealer);
+    }
+
+    // Solo con volumeLock en escritura o replaceLock: espera a que no quede ningún ajuste a medias y bloquea los nuevos
+    private void seal() {
+        sealer = Thread.currentThread();
+        sealing = true;
+        // El tiempo de espera solo protege de un aviso perdido; normalmente despierta exit()
+        while (inFlight.sum() != 0) LockSupport.parkNanos(this, SEAL_PARK_NANOS);
+    }
+
+    private void unseal() {
+        gate.lock();
+        try {
+            sealing = false;
+            unsealed.signalAll();
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    /**
+     * Para escrituras absolutas del stock, dentro de su transacción: retira la vista del producto y
+     * anota en la misma transacción ({@code stock_journal_resets}) que sus ajustes sin volcar, ya en
+     * segmentos sellados del diario, quedan reemplazados por el valor escrito. Tras una caída la
+     * recuperación los omite solo si la transacción confirmó; si se revierte, vuelven a la vista.
+     * <p>
+     * Hasta que la transacción termina no hay volcados: el checkpoint no puede pasar de los
+     * segmentos con esos ajustes mientras no se sepa si valen. Si un volcado ya está en curso se
+     * espera como mucho {@link #REPLACE_WAIT} y después la escritura falla con un conflicto.
+     */
+    public void replace(Long productId) {
+        replace(List.of(productId));
+    }
+
+    /** Como {@link #replace(Long)} para varios productos, con una sola espera a la barrera. */
+    public void replace(Collection<Long> productIds) {
+        acquireReplace();
+        Map<Long, Integer> replaced = new HashMap<>();
+        boolean release = true;
+        try {
+            long cut = 0;
+            replaceLock.lock();
+            try {
+                seal();
+                try {
+                    for (Long productId : productIds) {
+                        Slot slot = slots.remove(productId);
+                        if (slot == null) continue;
+                        int pending = pending(slot.takePending());
+                        if (pending != 0) replaced.put(productId, pending);
+                    }
+                    // Todo ajuste anterior de estos productos queda en un segmento hasta cut
+                    if (!replaced.isEmpty()) cut = journal.rotate();
+                } catch (RuntimeException e) {
+                    replaced.forEach(this::restore);
+                    throw e;
+                } finally {
+                    unseal();
+                }
+            } finally {
+                replaceLock.unlock();
+            }
+            if (replaced.isEmpty()) return;
+
+            List<Object[]> resets = new ArrayList<>(replaced.size());
+            for (Long productId : replaced.keySet()) resets.add(new Object[]{journal.id(), productId, cut});
+            try {
+                jdbcTemplate.batchUpdate("insert into stock_journal_resets (journal_id, product_id, segment) "
+                        + "values (?, ?, ?)", resets);
+            } catch (RuntimeException e) {
+                replaced.forEach(this::restore);
+                throw e;
+            }
+            log.debug("Escritura absoluta del stock; se anulan los ajustes sin volcar de {}", replaced);
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (status != STATUS_COMMITTED) replaced.forEach(StockLedger.this::restore);
+                    } finally {
+                        volumeLock.readLock().unlock();
+                    }
+                }
+            });
+            release = false;
+        } finally {
+            if (release) volumeLock.readLock().unlock();
+        }
+    }
+
+    private void acquireReplace() {
+        try {
+            if (volumeLock.readLock().tryLock(REPLACE_WAIT.toMillis(), TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Esperar más podría bloquear al volcado, que a su vez espera filas de esta transacción
+        throw new ConflictException("Volcado del stock en curso; reintente la escritura");
+    }
+
+    // Devuelve a la vista ajustes ya aceptados, sin comprobar el suelo: el volcado lo hace por
+    // ellos. Sus registros siguen en el diario, porque ningún volcado pudo pasar de ellos
+    private void restore(Long productId, int pending) {
+        while (true) {
+            Slot slot;
+            try {
+                slot = slot(productId);
+            } catch (NotFoundException e) {
+                log.warn("El producto {} ya no existe; se descartan {} unidades sin volcar", productId, pending);
+                return;
+            }
+            enter();
+            try {
+                if (slots.get(productId) != slot) continue;
+                slot.merge(pending);
+                return;
+            } finally {
+                exit();
+            }
+        }
+    }
+
+    /** Stock en memoria del producto, si lo hay; no consulta la BD ni cuenta como uso. */
+    public Optional<Live> peek(Long productId) {
+        Slot slot = slots.get(productId);
+        if (slot == null) return Optional.empty();
+        long changedAt = slot.changedAt;
+        return Optional.of(new Live(slot.available(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(changedAt), ZoneId.systemDefault())));
+    }
+
+    /** Descarta la vista del producto borrado; sus ajustes ya no tienen fila a la que llegar. */
+    public void discard(Long productId) {
+        if (slots.remove(productId) != null) {
+            log.debug("Producto {} borrado; se descarta su stock en memoria", productId);
+        }
+    }
+
+    /** Descarta al confirmarse la transacción: si se revierte, los ajustes pendientes siguen valiendo. */
+    public void discardAfterCommit(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            discard(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                discard(productId);
+            }
+        });
+    }
+
+    private int load(Long productId) {
+        List<Integer> stock = jdbcTemplate.queryForList(
+                "select stock from products where id = ? and deleted_at is null", Integer.class, productId);
+        if (stock.isEmpty()) throw new NotFoundException("Producto no encontrado con ID: " + productId);
+        return stock.get(0);
+    }
+
+    /** Vuelca los ajustes pendientes; package-private para los tests. */
+    void flush() {
+        if (!volumeLock.writeLock().tryLock()) {
+            log.debug("Escrituras absolutas del stock en curso; el volcado pasa al siguiente ciclo");
+            return;
+        }
+        try {
+            flushLocked();
+        } finally {
+            volumeLock.writeLock().unlock();
+        }
+    }
+
+    private void flushLocked() {
+        long sealed;
+        Map<Long, Long> taken = new HashMap<>();
+        seal();
+        try {
+            sealed = journal.rotate();
+            slots.forEach((id, slot) -> {
+                boolean touched = slot.touched;
+                slot.touched = false;
+                long state = slot.takePending();
+                // Sin uso desde el ciclo anterior y con todo volcado: se libera
+                if (!touched && pending(state) == 0) slots.remove(id);
+                else taken.put(id, state);
+            });
+        } finally {
+            unseal();
+        }
+
+        if (taken.isEmpty()) {
+            journal.deleteUpTo(sealed);
+            return;
+        }
+        Map<Long, Integer> deltas = new HashMap<>();
+        taken.forEach((id, state) -> {
+            if (pending(state) != 0) deltas.put(id, pending(state));
+        });
+
+        Map<Long, Integer> stocks;
+        List<Long> rejected = new ArrayList<>();
+        try {
+            stocks = flushTimer.record(() -> transactionTemplate.execute(status -> {
+                rejected.addAll(apply(deltas));
+                saveCheckpoint(sealed);
+                deleteResets(sealed);
+                // En la transacción: el aviso a otras réplicas se confirma con el volcado
+                if (!deltas.isEmpty()) eventPublisher.publishEvent(new EntityChangedEvent(Product.class));
+                return readStocks(taken.keySet());
+            }));
+        } catch (RuntimeException e) {
+            deltas.forEach((id, delta) -> {
+                Slot slot = slots.get(id);
+                if (slot != null) slot.restorePending(delta);
+            });
+            flushFailures.increment();
+            log.warn("Falló el volcado de {} ajustes de stock; se reintenta en {}", deltas.size(), flushInterval, e);
+            return;
+        }
+        journal.deleteUpTo(sealed);
+
+        for (Long id : rejected) {
+            if (!stocks.containsKey(id)) continue;
+            // El stock bajó por otra vía desde que se aceptaron: la corrección de abajo lo refleja
+            flushRejected.increment();
+            log.warn("Ajuste de {} unidades al producto {} no volcado: dejaría el stock en {} (< {})",
+                    deltas.get(id), id, stocks.get(id) + deltas.get(id), FLOOR);
+        }
+        taken.forEach((id, state) -> {
+            Integer stock = stocks.get(id);
+            if (stock == null) {
+                log.warn("El producto {} ya no existe; se descarta su stock en memoria", id);
+                slots.remove(id);
+                return;
+            }
+            // available(state) ya incluye el delta: si se rechazó, la deriva lo retira de la vista
+            int drift = stock - available(state);
+            Slot slot = slots.get(id);
+            if (drift != 0 && slot != null) slot.correct(drift);
+        });
+    }
+
+    private void recover() {
+        long sealed = journal.lastSealed();
+        List<Long> checkpoint = jdbcTemplate.queryForList(
+                "select segment from stock_journal_checkpoints where journal_id = ?", Long.class, journal.id());
+        Map<Long, Long> resets = new HashMap<>();
+        jdbcTemplate.query("select product_id, max(segment) from stock_journal_resets where journal_id = ? "
+                + "group by product_id", rs -> { resets.put(rs.getLong(1), rs.getLong(2)); }, journal.id());
+        Map<Long, Long> replayed = journal.replay(checkpoint.isEmpty() ? 0 : checkpoint.get(0), resets);
+        if (replayed.isEmpty()) {
+            deleteResets(sealed);
+        } else {
+            Map<Long, Integer> deltas = new HashMap<>();
+            replayed.forEach((id, delta) -> deltas.put(id, Math.toIntExact(delta)));
+            List<Long> rejected = transactionTemplate.execute(status -> {
+                List<Long> notApplied = apply(deltas);
+                saveCheckpoint(sealed);
+                deleteResets(sealed);
+                return notApplied;
+            });
+            log.info("Recuperados del diario los ajustes de stock pendientes de {} productos", deltas.size());
+            if (!rejected.isEmpty()) {
+                flushRejected.increment(rejected.size());
+                log.warn("Ajustes del diario no aplicados (producto borrado o stock bajo cero): {}", rejected);
+            }
+        }
+        journal.deleteUpTo(sealed);
+    }
+
+    /** Devuelve los productos cuya fila no se actualizó: borrados o con stock insuficiente. */
+    private List<Long> apply(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) return List.of();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = new ArrayList<>(deltas.size());
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> {
+            ids.add(id);
+            args.add(new Object[]{delta, now, id, delta});
+        });
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+        List<Long> rejected = new ArrayList<>();
+        // SUCCESS_NO_INFO (-2) se toma como aplicado: el driver no informa de filas
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) rejected.add(ids.get(i));
+        }
+        return rejected;
+    }
+
+    private void saveCheckpoint(long segment) {
+        if (jdbcTemplate.update("update stock_journal_checkpoints set segment = ? where journal_id = ?",
+                segment, journal.id()) == 0) {
+            jdbcTemplate.update("insert into stock_journal_checkpoints (journal_id, segment) values (?, ?)",
+                    journal.id(), segment);
+        }
+    }
+
+    // Con el checkpoint en sealed ningún reemplazo hasta ese segmento tiene ya registros que omitir
+    private void deleteResets(long sealed) {
+        jdbcTemplate.update("delete from stock_journal_resets where journal_id = ? and segment <= ?",
+                journal.id(), sealed);
+    }
+
+    private Map<Long, Integer> readStocks(Iterable<Long> ids) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        List<Long> chunk = new ArrayList<>(READ_CHUNK);
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == READ_CHUNK) {
+                readChunk(chunk, stocks);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) readChunk(chunk, stocks);
+        return stocks;
+    }
+
+    private void readChunk(List<Long> ids, Map<Long, Integer> stocks) {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.query("select id, stock from products where deleted_at is null and id in (" + placeholders + ")",
+                rs -> { stocks.put(rs.getLong(1), rs.getInt(2)); }, ids.toArray());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.warn("Falló el volcado del stock en memoria; se reintenta en {}", flushInterval, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("stock-ledger-flusher").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (flusher != null) flusher.shutdownNow();
+        flusher = null;
+        // Lo que no llegue a la BD queda en el diario y se recupera al arrancar
+        flushSafely();
+        journal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    // Disponible (32 bits altos) y pendiente de volcar (32 bajos) en un mismo long: un solo CAS
+    // comprueba el suelo y anota el ajuste, y el volcado lee ambos de forma consistente
+    private static long pack(long available, long pending) {
+        return (available << 32) | (pending & 0xFFFFFFFFL);
+    }
+
+    private static int available(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int pending(long state) {
+        return (int) state;
+    }
+
+    /** Stock disponible en memoria y hora de su último cambio (época si no cambió desde que se leyó). */
+    public record Live(int available, LocalDateTime changedAt) {
+    }
+
+    private static final class Slot {
+
+        private final AtomicLong state;
+        private volatile boolean touched = true;
+        private volatile long changedAt;
+
+        Slot(int stock) {
+            this.state = new AtomicLong(pack(stock, 0));
+        }
+
+        int available() {
+            return StockLedger.available(state.get());
+        }
+
+        int reserve(int delta) {
+            while (true) {
+                long current = state.get();
+                long available = StockLedger.available(current) + (long) delta;
+                long pending = pending(current) + (long) delta;
+                if (available < FLOOR) {
+                    throw new ConflictException("Stock insuficiente: disponible "
+                            + StockLedger.available(current) + ", ajuste " + delta);
+                }
+                if (available > Integer.MAX_VALUE || pending != (int) pending) {
+                    throw new IllegalArgumentException("El stock resultante excede el máximo permitido");
+                }
+                if (state.compareAndSet(current, pack(available, pending))) {
+                    touched = true;
+                    changedAt = System.currentTimeMillis();
+                    return (int) available;
+                }
+            }
+        }
+
+        /** Deshace un ajuste ya aplicado que no llegó al diario. */
+        void cancel(int delta) {
+            merge(-delta);
+        }
+
+        /** Suma a la vista y a lo pendiente un ajuste ya aceptado, sin comprobar el suelo. */
+        void merge(int delta) {
+            state.getAndUpdate(s -> pack(StockLedger.available(s) + delta, pending(s) + delta));
+            changedAt = System.currentTimeMillis();
+        }
+
+        long takePending() {
+            return state.getAndUpdate(s -> pack(StockLedger.available(s), 0));
+        }
+
+        void restorePending(int delta) {
+            state.getAndUpdate(s -> pack(StockLedger.available(s), pending(s) + delta));
+        }
+
+        void correct(int drift) {
+            state.getAndUpdate(s -> pack(StockLedger.available(s) + drift, pending(s)));
+            changedAt = System.currentTimeMillis();
+        }
+    }
+}
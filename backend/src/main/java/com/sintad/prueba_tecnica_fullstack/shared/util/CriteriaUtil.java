@@ -0,0 +1,21 @@
+package com.sintad.prueba_tecnica_fullstack.shared.util;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+
+public class CriteriaUtil {
+
+    /**
+     * Devuelve el join existente sobre el atributo o crea uno nuevo, para que varios
+     * filtros (y la proyección) sobre la misma relación compartan un único JOIN.
+     */
+    public static Join<?, ?> joinOnce(From<?, ?> from, String attribute, JoinType type) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute) && join.getJoinType() == type) {
+                return join;
+            }
+        }
+        return from.join(attribute, type);
+    }
+}
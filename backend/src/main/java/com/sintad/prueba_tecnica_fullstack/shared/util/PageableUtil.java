@@ -2,12 +2,20 @@ package com.sintad.prueba_tecnica_fullstack.shared.util;
 
 import com.sintad.prueba_tecnica_fullstack.shared.dto.BaseListRequest;
 import com.sintad.prueba_tecnica_fullstack.shared.dto.PageableRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.Cursor;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Set;
+import java.util.TreeMap;
 
 public class PageableUtil {
 
+    private static final Set<String> PAGING_PARAMS = Set.of("page", "per_page", "sort", "direction", "cursor", "total");
+
     public static Pageable from(PageableRequest request) {
         int page = (request.getPage() != null && request.getPage() > 0) ? request.getPage() - 1 : 0;
         int size = (request.getPerPage() != null && request.getPerPage() > 0) ? request.getPerPage() : 10;
@@ -30,4 +38,42 @@ public class PageableUtil {
     return PageRequest.of(page, size, sort);
 }
 
+    /** Orden de la exportación: el pedido por el cliente con {@code id} como desempate estable. */
+    public static Sort exportSort(BaseListRequest request) {
+        Sort sort = fromListRequest(request).getSort();
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+    }
+
+    public static boolean isCursorMode(BaseListRequest request) {
+        return request.getCursor() != null;
+    }
+
+    /**
+     * @param sortable campos admitidos por la entidad; el valor del campo de orden se devuelve
+     *                 codificado en el cursor, así que cualquier otro se rechaza con 400
+     */
+    public static CursorRequest cursorFromListRequest(BaseListRequest request, Set<String> sortable) {
+        int size = (request.getPer_page() != null && request.getPer_page() > 0) ? request.getPer_page() : 10;
+
+        String sortField = (request.getSort() != null && !request.getSort().isBlank()) ? request.getSort() : "id";
+        if (!sortable.contains(sortField)) {
+            throw new IllegalArgumentException("No se puede paginar por cursor ordenando por '" + sortField + "'");
+        }
+        String direction = (request.getDirection() != null && !request.getDirection().isBlank()) ? request.getDirection() : "asc";
+
+        Cursor after = (request.getCursor() != null && !request.getCursor().isBlank())
+                ? Cursor.decode(request.getCursor())
+                : null;
+
+        return new CursorRequest(sortField, Sort.Direction.fromString(direction), size, after);
+    }
+
+    public static String filterSignature(Class<?> type, MultiValueMap<String, String> params) {
+        TreeMap<String, Object> filters = new TreeMap<>();
+        params.forEach((name, values) -> {
+            if (!PAGING_PARAMS.contains(name)) filters.put(name, values);
+        });
+        return type.getSimpleName() + filters;
+    }
+
 }
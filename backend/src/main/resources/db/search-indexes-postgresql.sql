@@ -0,0 +1,8 @@
+-- Índices trigram para la búsqueda (q=) y los filtros LIKE: sirven lower(col) LIKE '%texto%'
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_description_trgm ON products USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_categories_name_trgm ON categories USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_categories_description_trgm ON categories USING gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,55 @@
+package com.sintad.prueba_tecnica_fullstack.config;
+
+import com.sintad.prueba_tecnica_fullstack.dto.user.UserRequest;
+import com.sintad.prueba_tecnica_fullstack.service.interfaces.IUserService;
+import com.sintad.prueba_tecnica_fullstack.shared.datasource.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Réplica sobre la misma BD H2 en memoria (el esquema lo crea Hibernate en el primario):
+ * verifica el cableado y el reparto de conexiones, no la replicación.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=jdbc:h2:mem:prueba_tecnica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.read-your-writes.window=1m"
+})
+@ActiveProfiles("test")
+class DataSourceRoutingConfigTest {
+
+    @Autowired private DataSource dataSource;
+    @Autowired private IUserService userService;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    void readOnlyServiceCallsUseReplicaUntilTheUserWrites() {
+        assertThat(dataSource, instanceOf(LazyConnectionDataSourceProxy.class));
+
+        double replicaBefore = count("replica", "read-only");
+        userService.count(null);
+        assertThat(count("replica", "read-only"), is(replicaBefore + 1));
+
+        double pinnedBefore = count("primary", "read-your-writes");
+        UserRequest request = new UserRequest("Usuario Réplica", "replica", "secreto123", "ADMIN");
+        userService.create(request);
+        userService.count(null);
+        assertThat(count("primary", "read-your-writes"), is(pinnedBefore + 1));
+    }
+
+    private double count(String target, String reason) {
+        return meterRegistry.get(ReadWriteRoutingDataSource.METRIC)
+                .tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+}
@@ -10,6 +10,7 @@ import com.sintad.prueba_tecnica_fullstack.security.CustomUserDetailsService;
 import com.sintad.prueba_tecnica_fullstack.security.JwtAuthenticationFilter;
 import com.sintad.prueba_tecnica_fullstack.security.JwtUtil;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.IUserService;
+import com.sintad.prueba_tecnica_fullstack.shared.accesslog.AccessLog;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -51,6 +52,8 @@ class AuthControllerTest {
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     @MockBean
     private CustomUserDetailsService customUserDetailsService;
+    @MockBean
+    private AccessLog accessLog;
 
     @Test
     void testLoginSuccess() throws Exception {
@@ -67,7 +70,7 @@ class AuthControllerTest {
 
         when(authenticationManager.authenticate(any())).thenReturn(auth);
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(fakeUser));
-        when(jwtUtil.generateToken(anyString(), anyString())).thenReturn("fake-jwt-token");
+        when(jwtUtil.generateToken(any(), anyString(), anyString())).thenReturn("fake-jwt-token");
 
         mockMvc.perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -5,7 +5,14 @@ import com.sintad.prueba_tecnica_fullstack.dto.category.CategoryRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.category.CategoryResponse;
 import com.sintad.prueba_tecnica_fullstack.entity.Category;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.ICategoryService;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ConditionalGet;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityVersions;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.JsonBytesCache;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ListResponseCache;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InMemoryInvalidationBus;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.FilterSpecBuilder;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalCountCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +21,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +40,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -52,7 +63,11 @@ class CategoryControllerTest {
 
         @BeforeEach
         void setup() {
-                CategoryController controller = new CategoryController(categoryService, specBuilder);
+                CategoryController controller = new CategoryController(categoryService, specBuilder,
+                                new TotalCountCache(Duration.ofSeconds(30), 100), new ConditionalGet(new EntityVersions(new InMemoryInvalidationBus())),
+                                new ListResponseCache(Duration.ofMinutes(5), 1000, new SimpleMeterRegistry(), Duration.ZERO),
+                                new JsonBytesCache(Jackson2ObjectMapperBuilder.json().build(), DataSize.ofMegabytes(1),
+                                                new SimpleMeterRegistry()));
                 this.mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
         }
 
@@ -115,7 +130,7 @@ class CategoryControllerTest {
                 CategoryResponse resp = CategoryResponse.builder()
                                 .id(5L).name("Snacks").description("Galletas y papas").build();
 
-                when(categoryService.update(eq(5L), any(CategoryRequest.class))).thenReturn(resp);
+                when(categoryService.update(eq(5L), any(CategoryRequest.class), isNull())).thenReturn(resp);
 
                 mockMvc.perform(put("/api/categories/{id}", 5)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -133,7 +148,7 @@ class CategoryControllerTest {
 
         @Test
         void delete_success() throws Exception {
-                doNothing().when(categoryService).delete(9L);
+                doNothing().when(categoryService).delete(9L, null);
 
                 mockMvc.perform(delete("/api/categories/{id}", 9)
                                 .accept(MediaType.APPLICATION_JSON))
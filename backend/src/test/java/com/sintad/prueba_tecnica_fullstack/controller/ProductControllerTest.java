@@ -1,31 +1,71 @@
 package com.sintad.prueba_tecnica_fullstack.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductResponse;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
 import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.service.interfaces.IProductBulkService;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.IProductService;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ConditionalGet;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityVersions;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.JsonBytesCache;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ListResponseCache;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.ResourceState;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InMemoryInvalidationBus;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.BulkResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.ImportResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.export.ExportFormat;
+import com.sintad.prueba_tecnica_fullstack.shared.export.StreamingExporter;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.FilterSpecBuilder;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalCountCache;
+import com.sintad.prueba_tecnica_fullstack.shared.stock.StockLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -40,12 +80,163 @@ class ProductControllerTest {
     @Mock
     private IProductService productService;
     @Mock
+    private IProductBulkService productBulkService;
+    @Mock
     private FilterSpecBuilder<Product> specBuilder;
+    @Mock
+    private ObjectProvider<StockLedger> stockLedger;
+
+    private final EntityVersions entityVersions = new EntityVersions(new InMemoryInvalidationBus());
 
     @BeforeEach
     void setup() {
-        ProductController controller = new ProductController(productService, specBuilder);
-        this.mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        this.mockMvc = mockMvc(Duration.ZERO);
+    }
+
+    private MockMvc mockMvc(Duration replicaLag) {
+        ProductController controller = new ProductController(productService, productBulkService, specBuilder,
+                new TotalCountCache(Duration.ofSeconds(30), 100),
+                new StreamingExporter(new ObjectMapper().findAndRegisterModules()),
+                new ConditionalGet(entityVersions),
+                new ListResponseCache(Duration.ofMinutes(5), 1000, new SimpleMeterRegistry(), replicaLag),
+                new JsonBytesCache(Jackson2ObjectMapperBuilder.json()
+                        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(),
+                        DataSize.ofMegabytes(1), new SimpleMeterRegistry()),
+                stockLedger);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void createBulk_returnsPerItemResults() throws Exception {
+        String json = """
+                [
+                  {"name": "SSD", "price": 299.99, "stock": 5, "categoryId": 1},
+                  {"name": "", "price": 10, "stock": 1, "categoryId": 1}
+                ]
+                """;
+
+        BulkResponse result = BulkResponse.of(List.of(
+                BulkResponse.Item.builder().index(0).status(BulkResponse.Status.CREATED).id(15L).build(),
+                BulkResponse.Item.builder().index(1).status(BulkResponse.Status.ERROR)
+                        .errors(java.util.Map.of("name", "no debe estar vacío")).build()));
+        when(productBulkService.createAll(any())).thenReturn(result);
+
+        mockMvc.perform(post("/api/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(2))
+                .andExpect(jsonPath("$.data.succeeded").value(1))
+                .andExpect(jsonPath("$.data.items[0].id").value(15))
+                .andExpect(jsonPath("$.data.items[1].status").value("ERROR"))
+                .andExpect(jsonPath("$.data.items[1].errors.name").exists());
+
+        verify(productBulkService).createAll(argThat(list -> list.size() == 2 && "SSD".equals(list.get(0).getName())));
+    }
+
+    @Test
+    void importProducts_passesBodyStreamAndFormat() throws Exception {
+        StringBuilder received = new StringBuilder();
+        when(productBulkService.importFrom(any(), eq(ExportFormat.CSV))).thenAnswer(invocation -> {
+            java.io.InputStream in = invocation.getArgument(0);
+            received.append(new String(in.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8));
+            return ImportResponse.builder()
+                    .total(2).imported(1).failed(1).chunks(1)
+                    .errors(List.of(ImportResponse.RowError.builder().row(2)
+                            .errors(java.util.Map.of("categoryId", "Categoría no encontrada con Otra")).build()))
+                    .build();
+        });
+
+        mockMvc.perform(post("/api/products/import").param("format", "csv")
+                        .contentType("text/csv")
+                        .content("name,price,stock,categoryName\r\nSSD,10,1,Tecnología\r\nMouse,5,1,Otra\r\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2))
+                .andExpect(jsonPath("$.data.errors[0].errors.categoryId").exists());
+
+        assertThat(received.toString(), startsWith("name,price,stock,categoryName\r\nSSD"));
+    }
+
+    @Test
+    void export_ndjson_streamsOneObjectPerLineWithSameFilters() throws Exception {
+        Specification<Product> spec = (root, query, cb) -> null;
+        when(specBuilder.build(eq(Product.class), eq(Product.ALLOWED_FILTERS), any(MultiValueMap.class)))
+                .thenReturn(spec);
+        doAnswer(invocation -> {
+            Consumer<ProductResponse> consumer = invocation.getArgument(2);
+            consumer.accept(ProductResponse.builder().id(1L).name("SSD").stock(5).build());
+            consumer.accept(ProductResponse.builder().id(2L).name("Mouse").stock(0).build());
+            return null;
+        }).when(productService).export(eq(spec), eq(Sort.by(Sort.Direction.DESC, "name").and(Sort.by("id"))), any());
+
+        MvcResult started = mockMvc.perform(get("/api/products/export")
+                        .param("sort", "name").param("direction", "desc").param("category_id", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", containsString("productos.ndjson")))
+                .andExpect(content().string(allOf(
+                        startsWith("{\"id\":1,\"name\":\"SSD\""),
+                        containsString("\n{\"id\":2,\"name\":\"Mouse\""),
+                        endsWith("}\n"))));
+
+        verify(specBuilder).build(eq(Product.class), eq(Product.ALLOWED_FILTERS),
+                argThat(params -> "1".equals(params.getFirst("category_id"))));
+    }
+
+    @Test
+    void export_runsTheProducerAsTheRequestingUser() throws Exception {
+        when(specBuilder.build(eq(Product.class), eq(Product.ALLOWED_FILTERS), any(MultiValueMap.class)))
+                .thenReturn((root, query, cb) -> null);
+        List<String> producerUser = new ArrayList<>();
+        doAnswer(invocation -> {
+            producerUser.add(Thread.currentThread().getName() + "|"
+                    + SecurityContextHolder.getContext().getAuthentication().getName());
+            return null;
+        }).when(productService).export(any(), any(), any());
+
+        // El usuario decide la ventana de read-your-writes del enrutamiento en el hilo asíncrono
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin", null, List.of()));
+        MvcResult started;
+        try {
+            started = mockMvc.perform(get("/api/products/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        assertThat(producerUser, contains(allOf(
+                not(startsWith(Thread.currentThread().getName() + "|")), endsWith("|admin"))));
+    }
+
+    @Test
+    void export_csv_writesHeaderAndEscapesValues() throws Exception {
+        when(specBuilder.build(eq(Product.class), eq(Product.ALLOWED_FILTERS), any(MultiValueMap.class)))
+                .thenReturn((root, query, cb) -> null);
+        doAnswer(invocation -> {
+            Consumer<ProductResponse> consumer = invocation.getArgument(2);
+            consumer.accept(ProductResponse.builder().id(1L).name("Laptop, 16\"").price(new java.math.BigDecimal("3500.50"))
+                    .stock(3).categoryName("Tecnología").build());
+            return null;
+        }).when(productService).export(any(), any(), any());
+
+        MvcResult started = mockMvc.perform(get("/api/products/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("productos.csv")))
+                .andExpect(content().string(
+                        "id,name,description,price,stock,categoryId,categoryName,userId,userName,createdAt\r\n"
+                                + "1,\"Laptop, 16\"\"\",,3500.50,3,,Tecnología,,,\r\n"));
     }
 
     @Test
@@ -123,6 +314,142 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.data.userName").value("Usuario Demo"));
     }
 
+    @Test
+    void getById_withCurrentETag_returns304WithoutLoadingTheProduct() throws Exception {
+        when(productService.findState(1L)).thenReturn(Optional.of(new ResourceState(3L, LocalDateTime.parse("2025-10-02T22:06:05.409925"))));
+        when(productService.getById(1L)).thenReturn(ProductResponse.builder().id(1L).name("Laptop Lenovo").build());
+
+        MvcResult first = mockMvc.perform(get("/api/products/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"1-v3-")))
+                .andExpect(header().stringValues(HttpHeaders.ETAG, iterableWithSize(1)))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/products/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(productService, times(1)).getById(1L);
+
+        // Renombrar una categoría cambia el nombre que muestra el producto
+        entityVersions.bump(Category.class);
+        mockMvc.perform(get("/api/products/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("Laptop Lenovo"));
+    }
+
+    @Test
+    void getById_withTheLedger_showsTheUnflushedStockAndRevalidatesOnEachAdjustment() throws Exception {
+        StockLedger ledger = mock(StockLedger.class);
+        when(stockLedger.getIfAvailable()).thenReturn(ledger);
+        LocalDateTime modified = LocalDateTime.parse("2025-10-02T22:06:05");
+        when(productService.findState(1L)).thenReturn(Optional.of(new ResourceState(3L, modified)));
+        when(productService.getById(1L)).thenReturn(ProductResponse.builder().id(1L).name("Laptop Lenovo").stock(1000).build());
+        when(ledger.peek(1L)).thenReturn(Optional.of(new StockLedger.Live(900, modified.plusMinutes(1))));
+
+        MvcResult first = mockMvc.perform(get("/api/products/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, allOf(startsWith("\"1-v3-"), endsWith("-s900\""))))
+                .andExpect(jsonPath("$.data.stock").value(900))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Un ajuste aún sin volcar no cambia la versión, pero sí el ETag
+        when(ledger.peek(1L)).thenReturn(Optional.of(new StockLedger.Live(899, modified.plusMinutes(2))));
+        mockMvc.perform(get("/api/products/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.stock").value(899));
+    }
+
+    @Test
+    void getById_repeatedRead_writesTheCachedBytesUntilTheResourceChanges() throws Exception {
+        when(productService.findState(1L)).thenReturn(Optional.of(new ResourceState(0L, LocalDateTime.parse("2025-10-02T22:06:05"))));
+        when(productService.getById(1L)).thenReturn(ProductResponse.builder().id(1L).name("Laptop Lenovo")
+                .createdAt(LocalDateTime.parse("2025-10-02T22:06:05")).build());
+
+        String first = mockMvc.perform(get("/api/products/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.createdAt").value("2025-10-02T22:06:05"))
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/api/products/{id}", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(second, is(first));
+        verify(productService, times(1)).getById(1L);
+
+        // Una edición incrementa la versión y con ella la clave
+        when(productService.findState(1L)).thenReturn(Optional.of(new ResourceState(1L, LocalDateTime.parse("2025-10-03T08:00:00"))));
+        mockMvc.perform(get("/api/products/{id}", 1)).andExpect(status().isOk());
+        verify(productService, times(2)).getById(1L);
+    }
+
+    @Test
+    void list_withCurrentETag_returns304BeforeQuerying() throws Exception {
+        when(specBuilder.build(eq(Product.class), anyMap(), any(MultiValueMap.class)))
+                .thenReturn((root, query, cb) -> cb.conjunction());
+        when(productService.search(any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        String etag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(productService, times(1)).search(any(), any(Pageable.class));
+
+        entityVersions.bump(Product.class);
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+        verify(productService, times(2)).search(any(), any(Pageable.class));
+    }
+
+    @Test
+    void list_sameQueryInAnyParamOrder_isServedFromTheResponseCacheUntilAWrite() throws Exception {
+        when(specBuilder.build(eq(Product.class), anyMap(), any(MultiValueMap.class)))
+                .thenReturn((root, query, cb) -> cb.conjunction());
+        when(productService.search(any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        mockMvc.perform(get("/api/products").param("page", "1").param("name", "ssd"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products").param("name", "ssd").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.meta.total").value(0));
+        mockMvc.perform(get("/api/products").param("name", "hdd").param("page", "1"))
+                .andExpect(status().isOk());
+        verify(productService, times(2)).search(any(), any(Pageable.class));
+
+        entityVersions.bump(Category.class);
+        mockMvc.perform(get("/api/products").param("page", "1").param("name", "ssd"))
+                .andExpect(status().isOk());
+        verify(productService, times(3)).search(any(), any(Pageable.class));
+    }
+
+    @Test
+    void list_rightAfterAWrite_isNotCachedWhileTheReplicaMayLag() throws Exception {
+        MockMvc withReplica = mockMvc(Duration.ofMinutes(1));
+        when(specBuilder.build(eq(Product.class), anyMap(), any(MultiValueMap.class)))
+                .thenReturn((root, query, cb) -> cb.conjunction());
+        when(productService.search(any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        entityVersions.bump(Product.class);
+        withReplica.perform(get("/api/products").param("page", "1")).andExpect(status().isOk());
+        withReplica.perform(get("/api/products").param("page", "1")).andExpect(status().isOk());
+
+        // Una réplica atrasada no debe quedar fijada bajo la versión nueva durante todo el TTL
+        verify(productService, times(2)).search(any(), any(Pageable.class));
+    }
+
     @Test
     void update_success() throws Exception {
         String validJson = """
@@ -148,7 +475,7 @@ class ProductControllerTest {
                 .createdAt(LocalDateTime.parse("2025-10-02T22:06:05.409925"))
                 .build();
 
-        when(productService.update(eq(1L), any(ProductRequest.class))).thenReturn(resp);
+        when(productService.update(eq(1L), any(ProductRequest.class), isNull())).thenReturn(resp);
 
         mockMvc.perform(put("/api/products/{id}", 1)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -168,7 +495,7 @@ class ProductControllerTest {
 
     @Test
     void delete_success() throws Exception {
-        doNothing().when(productService).delete(1L);
+        doNothing().when(productService).delete(1L, null);
 
         mockMvc.perform(delete("/api/products/{id}", 1)
                 .accept(MediaType.APPLICATION_JSON))
@@ -179,6 +506,27 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.data").value("Producto eliminado correctamente"));
     }
 
+    @Test
+    void update_withIfMatch_passesTheVersionFromTheETag() throws Exception {
+        when(productService.update(eq(1L), any(ProductRequest.class), eq(3L)))
+                .thenReturn(ProductResponse.builder().id(1L).version(4L).build());
+
+        mockMvc.perform(put("/api/products/{id}", 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"1-v3-k2x9a\"")
+                .content("{\"name\": \"Laptop\", \"price\": 55.00, \"stock\": 1, \"categoryId\": 1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(4));
+    }
+
+    @Test
+    void delete_withBareVersionInIfMatch_passesIt() throws Exception {
+        mockMvc.perform(delete("/api/products/{id}", 1).header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isOk());
+
+        verify(productService).delete(1L, 3L);
+    }
+
     @Test
     void list_success_singleItem_onlyId1() throws Exception {
         Specification<Product> spec = (root, query, cb) -> cb.conjunction();
@@ -250,4 +598,114 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.data.meta.to").value(1))
                 .andExpect(jsonPath("$.data.meta.total").value(1));
     }
+
+    @Test
+    void list_cursorMode_emitsNextCursorLink() throws Exception {
+        Specification<Product> spec = (root, query, cb) -> cb.conjunction();
+        when(specBuilder.build(eq(Product.class), anyMap(), any(MultiValueMap.class))).thenReturn(spec);
+
+        ProductResponse item = ProductResponse.builder().id(7L).name("Laptop Lenovo").build();
+        CursorSlice<ProductResponse> slice = new CursorSlice<>(List.of(item), 1, "NEXT");
+        when(productService.scroll(any(), any(CursorRequest.class))).thenReturn(slice);
+
+        mockMvc.perform(get("/api/products")
+                .param("per_page", "1")
+                .param("page", "3")
+                .param("cursor", "")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.data", hasSize(1)))
+                .andExpect(jsonPath("$.data.data[0].id").value(7))
+                .andExpect(jsonPath("$.data.links.next", containsString("cursor=NEXT")))
+                .andExpect(jsonPath("$.data.links.next", not(containsString("page=3"))))
+                .andExpect(jsonPath("$.data.links.prev").value(nullValue()))
+                .andExpect(jsonPath("$.data.meta.nextCursor").value("NEXT"))
+                .andExpect(jsonPath("$.data.meta.perPage").value(1))
+                .andExpect(jsonPath("$.data.meta.total").value(nullValue()));
+    }
+
+    @Test
+    void list_cursorMode_rejectsSortingByANullableField() throws Exception {
+        // Sin el GlobalExceptionHandler, que la traduce a 400, la excepción llega envuelta
+        ServletException ex = assertThrows(ServletException.class, () -> mockMvc.perform(get("/api/products")
+                .param("cursor", "")
+                .param("sort", "createdAt")
+                .accept(MediaType.APPLICATION_JSON)));
+
+        assertThat(ex.getCause(), instanceOf(IllegalArgumentException.class));
+        verify(productService, never()).scroll(any(), any(CursorRequest.class));
+    }
+
+    @Test
+    void list_totalNone_skipsCountAndTotals() throws Exception {
+        Specification<Product> spec = (root, query, cb) -> cb.conjunction();
+        when(specBuilder.build(eq(Product.class), anyMap(), any(MultiValueMap.class))).thenReturn(spec);
+
+        ProductResponse item = ProductResponse.builder().id(1L).name("Laptop Lenovo").build();
+        Slice<ProductResponse> slice = new SliceImpl<>(List.of(item), PageRequest.of(1, 1), true);
+        when(productService.searchSlice(any(), any(Pageable.class))).thenReturn(slice);
+
+        mockMvc.perform(get("/api/products")
+                .param("per_page", "1")
+                .param("page", "2")
+                .param("total", "none")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.data", hasSize(1)))
+                .andExpect(jsonPath("$.data.links.prev", containsString("page=1")))
+                .andExpect(jsonPath("$.data.links.next", containsString("page=3")))
+                .andExpect(jsonPath("$.data.links.last").value(nullValue()))
+                .andExpect(jsonPath("$.data.meta.currentPage").value(2))
+                .andExpect(jsonPath("$.data.meta.total").value(nullValue()));
+
+        verify(productService, never()).search(any(), any(Pageable.class));
+        verify(productService, never()).count(any());
+    }
+
+    @Test
+    void list_totalEstimate_reusesCachedCountForSameFilters() throws Exception {
+        Specification<Product> spec = (root, query, cb) -> cb.conjunction();
+        when(specBuilder.build(eq(Product.class), anyMap(), any(MultiValueMap.class))).thenReturn(spec);
+
+        ProductResponse item = ProductResponse.builder().id(1L).name("Laptop Lenovo").build();
+        when(productService.searchSlice(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(item), PageRequest.of(0, 1), true));
+        when(productService.count(any())).thenReturn(42L);
+
+        for (int page = 1; page <= 2; page++) {
+            mockMvc.perform(get("/api/products")
+                    .param("per_page", "1")
+                    .param("page", String.valueOf(page))
+                    .param("name", "lap")
+                    .param("total", "estimate")
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.meta.total").value(42))
+                    .andExpect(jsonPath("$.data.meta.lastPage").value(42));
+        }
+
+        verify(productService, times(1)).count(any());
+    }
+
+    @Test
+    void adjustStock_returnsTheResultingStock() throws Exception {
+        when(productService.adjustStock(7L, -2)).thenReturn(8);
+
+        mockMvc.perform(post("/api/products/7/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"delta\": -2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(7))
+                .andExpect(jsonPath("$.data.stock").value(8));
+    }
+
+    @Test
+    void adjustStock_withoutDelta_isRejected() throws Exception {
+        mockMvc.perform(post("/api/products/7/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).adjustStock(any(), anyInt());
+    }
 }
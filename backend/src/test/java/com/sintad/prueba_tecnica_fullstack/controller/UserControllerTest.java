@@ -6,6 +6,7 @@ import com.sintad.prueba_tecnica_fullstack.dto.user.UserResponse;
 import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.service.interfaces.IUserService;
 import com.sintad.prueba_tecnica_fullstack.shared.filter.FilterSpecBuilder;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.TotalCountCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +19,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.util.MultiValueMap;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +28,7 @@ import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -46,7 +49,8 @@ class UserControllerTest {
 
     @BeforeEach
     void setup() {
-        UserController controller = new UserController(userService, specBuilder);
+        UserController controller = new UserController(userService, specBuilder,
+                new TotalCountCache(Duration.ofSeconds(30), 100));
         this.mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
@@ -124,7 +128,7 @@ class UserControllerTest {
                 .role("ADMIN")
                 .build();
 
-        when(userService.update(eq(5L), any(UserRequest.class))).thenReturn(resp);
+        when(userService.update(eq(5L), any(UserRequest.class), isNull())).thenReturn(resp);
 
         mockMvc.perform(put("/api/users/{id}", 5)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -142,7 +146,7 @@ class UserControllerTest {
 
     @Test
     void delete_success() throws Exception {
-        doNothing().when(userService).delete(9L);
+        doNothing().when(userService).delete(9L, null);
 
         mockMvc.perform(delete("/api/users/{id}", 9)
                         .accept(MediaType.APPLICATION_JSON))
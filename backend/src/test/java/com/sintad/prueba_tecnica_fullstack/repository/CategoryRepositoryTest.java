@@ -0,0 +1,55 @@
+package com.sintad.prueba_tecnica_fullstack.repository;
+
+import com.sintad.prueba_tecnica_fullstack.config.JpaConfig;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+class CategoryRepositoryTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+    private Long firstId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 8; i++) {
+            User owner = em.persist(User.builder().username("user" + i).fullName("Usuario " + i).password("x")
+                    .role("ADMIN").createdAt(LocalDateTime.now()).build());
+            Category category = em.persist(Category.builder().name("Categoría " + i).user(owner)
+                    .createdAt(LocalDateTime.now()).build());
+            if (firstId == null) firstId = category.getId();
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_loadsUserInSingleStatement() {
+        Category category = categoryRepository.findById(firstId).orElseThrow();
+        category.getUser().getFullName();
+
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+    }
+}
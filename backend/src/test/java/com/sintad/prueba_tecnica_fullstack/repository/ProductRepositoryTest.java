@@ -0,0 +1,171 @@
+package com.sintad.prueba_tecnica_fullstack.repository;
+
+import com.sintad.prueba_tecnica_fullstack.config.JpaConfig;
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductResponse;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.repository.projection.ResponseProjections;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.Cursor;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.KeysetSpecs;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+class ProductRepositoryTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ProductRepository productRepository;
+
+    private Statistics statistics;
+    private Long firstId;
+
+    @BeforeEach
+    void setUp() {
+        User admin = em.persist(user("admin", "Administrador General"));
+        User demo = em.persist(user("usuario", "Usuario Demo"));
+
+        for (int i = 0; i < 12; i++) {
+            User owner = i % 2 == 0 ? admin : demo;
+            Category category = em.persist(Category.builder().name("Categoría " + i).user(owner)
+                    .createdAt(LocalDateTime.now()).build());
+            Product product = em.persist(Product.builder().name("Producto " + i).price(BigDecimal.TEN).stock(i)
+                    .user(owner).category(category).createdAt(LocalDateTime.now()).build());
+            if (firstId == null) firstId = product.getId();
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findBy_fluentQueryLoadsRelationsInSingleStatement() {
+        List<Product> rows = productRepository.findBy(withUserName("usuario"),
+                q -> q.sortBy(Sort.by("id")).limit(6).all());
+
+        touchRelations(rows);
+
+        assertThat(rows, hasSize(6));
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+    }
+
+    @Test
+    void findByIdAndDeletedAtIsNull_loadsRelationsInSingleStatement() {
+        Product product = productRepository.findByIdAndDeletedAtIsNull(firstId).orElseThrow();
+
+        touchRelations(List.of(product));
+
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+    }
+
+    @Test
+    void findAll_projectionSelectsResponseColumnsWithoutLoadingEntities() {
+        Page<ProductResponse> page = productRepository.findAll(withUserName("usuario"),
+                PageRequest.of(0, 5, Sort.by("id")), ResponseProjections.PRODUCT);
+
+        ProductResponse first = page.getContent().get(0);
+        assertThat(page.getTotalElements(), is(11L));
+        assertThat(first.getName(), is("Producto 1"));
+        assertThat(first.getStock(), is(1));
+        assertThat(first.getUserName(), is("Usuario Demo"));
+        assertThat(first.getCategoryName(), is("Categoría 1"));
+        assertThat(first.getCategoryId(), notNullValue());
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+    }
+
+    @Test
+    void findSlice_projectionSortsByRelationWithoutCount() {
+        Slice<ProductResponse> slice = productRepository.findSlice(withUserName("usuario"),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "category.name")), ResponseProjections.PRODUCT);
+
+        assertThat(slice.hasNext(), is(true));
+        assertThat(slice.getContent().get(0).getCategoryName(), is("Categoría 9"));
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+    }
+
+    @Test
+    void stream_projectionReadsAllRowsInOneStatementWithoutLoadingEntities() {
+        List<ProductResponse> rows;
+        try (Stream<ProductResponse> stream = productRepository.stream(withUserName("usuario"),
+                Sort.by(Sort.Direction.DESC, "id"), ResponseProjections.PRODUCT, 4)) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows, hasSize(11));
+        assertThat(rows.get(0).getName(), is("Producto 11"));
+        assertThat(rows.get(0).getUserName(), is("Usuario Demo"));
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+    }
+
+    @Test
+    void findBy_keysetOnRelationField_continuesFromTheCursorOfTheFirstPage() {
+        CursorRequest first = new CursorRequest("category.name", Sort.Direction.DESC, 5, null);
+        CursorSlice<Long> page1 = scroll(first);
+
+        CursorRequest second = new CursorRequest("category.name", Sort.Direction.DESC, 5,
+                Cursor.decode(page1.nextCursor()));
+        CursorSlice<Long> page2 = scroll(second);
+
+        // "Categoría 9" > "Categoría 8" > ... > "Categoría 11" > "Categoría 10" > "Categoría 1"
+        assertThat(page1.content(), hasSize(5));
+        assertThat(page2.content(), hasSize(5));
+        assertThat(page2.content(), everyItem(not(in(page1.content()))));
+        assertThat(Cursor.decode(page1.nextCursor()).value(), is("Categoría 5"));
+    }
+
+    private CursorSlice<Long> scroll(CursorRequest request) {
+        Specification<Product> spec = withUserName("usuario").and(KeysetSpecs.after(request));
+        List<Product> rows = productRepository.findBy(spec,
+                q -> q.sortBy(request.sort()).limit(request.size() + 1).all());
+        return CursorSlice.of(rows, request, Product::getId);
+    }
+
+    /** Filtro con join explícito sobre user, igual que los que arma FilterSpecBuilder. */
+    private static Specification<Product> withUserName(String fragment) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThan(root.get("stock"), 0),
+                cb.or(cb.like(root.join("user").get("username"), "%" + fragment + "%"),
+                        cb.like(root.get("user").get("username"), "admin")));
+    }
+
+    private static void touchRelations(List<Product> products) {
+        products.forEach(p -> {
+            p.getUser().getFullName();
+            p.getCategory().getName();
+        });
+    }
+
+    private static User user(String username, String fullName) {
+        return User.builder().username(username).fullName(fullName).password("x").role("ADMIN")
+                .createdAt(LocalDateTime.now()).build();
+    }
+}
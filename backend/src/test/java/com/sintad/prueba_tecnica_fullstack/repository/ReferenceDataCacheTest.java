@@ -0,0 +1,146 @@
+package com.sintad.prueba_tecnica_fullstack.repository;
+
+import com.sintad.prueba_tecnica_fullstack.config.JpaConfig;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.SecondLevelCacheInvalidation;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InMemoryInvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/** La caché solo se llena y se invalida al confirmar, así que cada paso va en su propia transacción. */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"})
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        categoryId = tx.execute(status -> {
+            User admin = userRepository.save(User.builder().fullName("Administrador General").username("admin")
+                    .password("x").role("ADMIN").createdAt(LocalDateTime.now()).build());
+            return categoryRepository.save(Category.builder().name("Tecnología").user(admin)
+                    .createdAt(LocalDateTime.now()).build()).getId();
+        });
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            categoryRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findByIdAndDeletedAtIsNull_secondLookupSkipsTheDatabase() {
+        findActiveCategory();
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+
+        Optional<Category> cached = findActiveCategory();
+
+        assertThat(cached.map(Category::getName).orElseThrow(), is("Tecnología"));
+        assertThat(statistics.getPrepareStatementCount(), is(statementsAfterFirst));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+    }
+
+    @Test
+    void findByUsernameAndDeletedAtIsNull_secondLookupSkipsTheDatabase() {
+        tx.execute(status -> userRepository.findByUsernameAndDeletedAtIsNull("admin"));
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+
+        User cached = tx.execute(status -> userRepository.findByUsernameAndDeletedAtIsNull("admin")).orElseThrow();
+
+        assertThat(cached.getFullName(), is("Administrador General"));
+        assertThat(statistics.getPrepareStatementCount(), is(statementsAfterFirst));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+    }
+
+    @Test
+    void categoryWrites_invalidateCachedLookups() {
+        findActiveCategory();
+
+        tx.executeWithoutResult(status -> {
+            Category category = categoryRepository.findById(categoryId).orElseThrow();
+            category.setName("Electrónica");
+            categoryRepository.save(category);
+        });
+        assertThat(findActiveCategory().map(Category::getName).orElseThrow(), is("Electrónica"));
+
+        tx.executeWithoutResult(status -> {
+            Category category = categoryRepository.findById(categoryId).orElseThrow();
+            category.setDeletedAt(LocalDateTime.now());
+            categoryRepository.save(category);
+        });
+        assertThat(findActiveCategory(), is(Optional.empty()));
+    }
+
+    @Test
+    void productMessageFromAnotherNode_leavesCategoryQueriesWarm() {
+        SecondLevelCacheInvalidation invalidation =
+                new SecondLevelCacheInvalidation(entityManagerFactory, new InMemoryInvalidationBus());
+        findActiveCategory();
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+
+        invalidation.invalidate(Product.class.getName());
+        findActiveCategory();
+
+        assertThat(statistics.getPrepareStatementCount(), is(statementsAfterFirst));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+    }
+
+    @Test
+    void categoryMessageFromAnotherNode_evictsOnlyCategoryQueries() {
+        SecondLevelCacheInvalidation invalidation =
+                new SecondLevelCacheInvalidation(entityManagerFactory, new InMemoryInvalidationBus());
+        findActiveCategory();
+        tx.execute(status -> userRepository.findByUsernameAndDeletedAtIsNull("admin"));
+
+        invalidation.invalidate(Category.class.getName());
+        findActiveCategory();
+        tx.execute(status -> userRepository.findByUsernameAndDeletedAtIsNull("admin"));
+
+        assertThat(statistics.getQueryRegionStatistics(Category.QUERY_CACHE_REGION).getHitCount(), is(0L));
+        assertThat(statistics.getQueryRegionStatistics(User.QUERY_CACHE_REGION).getHitCount(), is(1L));
+    }
+
+    private Optional<Category> findActiveCategory() {
+        return tx.execute(status -> categoryRepository.findByIdAndDeletedAtIsNull(categoryId));
+    }
+}
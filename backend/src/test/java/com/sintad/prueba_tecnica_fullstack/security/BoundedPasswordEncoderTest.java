@@ -0,0 +1,86 @@
+package com.sintad.prueba_tecnica_fullstack.security;
+
+import com.sintad.prueba_tecnica_fullstack.shared.exception.OverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_delegateAndRecordHashLatency() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, meterRegistry);
+
+        String hash = encoder.encode("secreto");
+
+        assertThat(encoder.matches("secreto", hash), is(true));
+        assertThat(encoder.matches("otro", hash), is(false));
+        assertThat(meterRegistry.get("security.password.hash").tag("operation", "encode").timer().count(), is(1L));
+        assertThat(meterRegistry.get("security.password.hash").tag("operation", "matches").timer().count(), is(2L));
+    }
+
+    @Test
+    void fullQueue_rejectsImmediatelyAndCountsTheRejection() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blocking(started, release), 1, 1, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) Thread.onSpinWait();
+
+        assertThrows(OverloadedException.class, () -> encoder.encode("c"));
+        assertThat(meterRegistry.get("security.password.rejected").counter().count(), is(1.0));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS), is("hash:a"));
+        assertThat(queued.get(5, TimeUnit.SECONDS), is("hash:b"));
+    }
+
+    @Test
+    void upgradeEncoding_onlyForWeakerHashes() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, meterRegistry);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("x")), is(true));
+        assertThat(encoder.upgradeEncoding(encoder.encode("x")), is(false));
+    }
+
+    private static PasswordEncoder blocking(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+}
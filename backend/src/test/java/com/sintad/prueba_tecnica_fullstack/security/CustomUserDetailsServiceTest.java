@@ -0,0 +1,124 @@
+package com.sintad.prueba_tecnica_fullstack.security;
+
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InMemoryInvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+    private CustomUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(Duration.ofMinutes(1), 100, meterRegistry, new InMemoryInvalidationBus());
+        service = new CustomUserDetailsService(userRepository, principalCache);
+    }
+
+    @Test
+    void loadUserByUsername_queriesOncePerTtlAndReportsHits() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user("ADMIN", null)));
+
+        service.loadUserByUsername("admin");
+        UserDetails second = service.loadUserByUsername("admin");
+
+        assertThat(second.getAuthorities().iterator().next().getAuthority(), is("ROLE_ADMIN"));
+        verify(userRepository, times(1)).findByUsername("admin");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", PrincipalCache.NAME).tag("result", "hit")
+                .functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void loadUserByUsername_returnsFreshCopyEvenIfCredentialsWereErased() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user("ADMIN", null)));
+
+        ((CredentialsContainer) service.loadUserByUsername("admin")).eraseCredentials();
+
+        assertThat(service.loadUserByUsername("admin").getPassword(), is("HASH"));
+    }
+
+    @Test
+    void loadUserByUsername_rejectsSoftDeletedUsersWithoutCachingThem() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user("ADMIN", LocalDateTime.now())));
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("admin"));
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("admin"));
+
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    void evictAfterCommit_outsideTransaction_appliesRoleChangeOnNextLookup() {
+        when(userRepository.findByUsername("admin"))
+                .thenReturn(Optional.of(user("ADMIN", null)))
+                .thenReturn(Optional.of(user("USER", null)));
+        service.loadUserByUsername("admin");
+
+        principalCache.evictAfterCommit("admin");
+
+        assertThat(service.loadUserByUsername("admin").getAuthorities().iterator().next().getAuthority(),
+                is("ROLE_USER"));
+    }
+
+    @Test
+    void login_withWeakerHash_rehashesWithTheConfiguredCost() {
+        User stored = user("ADMIN", null);
+        stored.setPassword(new BCryptPasswordEncoder(4).encode("admin123"));
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(stored));
+        when(userRepository.updatePasswordByUsername(eq("admin"), startsWith("$2a$05$"))).thenReturn(1);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new BCryptPasswordEncoder(5));
+        provider.setUserDetailsService(service);
+        provider.setUserDetailsPasswordService(service);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin123"));
+
+        verify(userRepository).updatePasswordByUsername(eq("admin"), startsWith("$2a$05$"));
+    }
+
+    @Test
+    void login_withCurrentCost_doesNotRehash() {
+        User stored = user("ADMIN", null);
+        stored.setPassword(new BCryptPasswordEncoder(4).encode("admin123"));
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(stored));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new BCryptPasswordEncoder(4));
+        provider.setUserDetailsService(service);
+        provider.setUserDetailsPasswordService(service);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin123"));
+
+        verify(userRepository, never()).updatePasswordByUsername(any(), any());
+    }
+
+    private static User user(String role, LocalDateTime deletedAt) {
+        return User.builder().id(1L).username("admin").password("HASH").role(role)
+                .fullName("Administrador General").deletedAt(deletedAt).build();
+    }
+}
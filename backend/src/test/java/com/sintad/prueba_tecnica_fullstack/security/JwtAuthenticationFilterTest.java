@@ -0,0 +1,152 @@
+package com.sintad.prueba_tecnica_fullstack.security;
+
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InMemoryInvalidationBus;
+import com.sintad.prueba_tecnica_fullstack.shared.interceptor.JwtAuthInterceptor;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "mysupersecurekeymysupersecurekey123456";
+
+    @Mock private CustomUserDetailsService userDetailsService;
+
+    private JwtUtil jwtUtil;
+    private TokenRevocations tokenRevocations;
+    private JwtAuthenticationFilter filter;
+    private final JwtAuthInterceptor interceptor = new JwtAuthInterceptor();
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil(SECRET));
+        tokenRevocations = new TokenRevocations(100, new InMemoryInvalidationBus());
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtUtil, 100, new SimpleMeterRegistry()),
+                tokenRevocations, userDetailsService, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_isParsedOnceAndClaimsDriveTheRoleCheck() throws Exception {
+        MockHttpServletRequest request = request("/api/categories", jwtUtil.generateToken(2L, "usuario", "USER"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        verify(jwtUtil, times(1)).parseClaims(anyString());
+        assertThat(((Claims) request.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE)).getSubject(), is("usuario"));
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName(), is("usuario"));
+        assertThat(proceed, is(false));
+        assertThat(response.getStatus(), is(HttpServletResponse.SC_FORBIDDEN));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void adminToken_passesTheCategoriesRoleCheck() throws Exception {
+        MockHttpServletRequest request = request("/api/categories", jwtUtil.generateToken(1L, "admin", "ADMIN"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(interceptor.preHandle(request, response, new Object()), is(true));
+        verify(jwtUtil, times(1)).parseClaims(anyString());
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .map(Object::toString).toList(), org.hamcrest.Matchers.contains("ROLE_ADMIN"));
+    }
+
+    @Test
+    void tokenWithoutUserId_isStillValidatedAgainstTheUserStore() throws Exception {
+        when(userDetailsService.loadUserByUsername("usuario"))
+                .thenReturn(User.withUsername("usuario").password("x").roles("USER").build());
+        MockHttpServletRequest request = request("/api/products", jwtUtil.generateToken(null, "usuario", "USER"));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName(), is("usuario"));
+        verify(userDetailsService).loadUserByUsername("usuario");
+    }
+
+    @Test
+    void revokedToken_isRejectedEvenThoughItsSignatureIsValid() throws Exception {
+        String token = jwtUtil.generateToken(2L, "usuario", "USER");
+        tokenRevocations.revokeAll(2L);
+        MockHttpServletRequest request = request("/api/products", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus(), is(HttpServletResponse.SC_UNAUTHORIZED));
+        assertThat(response.getContentAsString(), containsString("Token revocado"));
+        assertThat(chain.getRequest(), nullValue());
+        assertThat(SecurityContextHolder.getContext().getAuthentication(), nullValue());
+    }
+
+    @Test
+    void fullRevocationList_failsClosedInsteadOfForgettingRevokedTokens() {
+        TokenRevocations tiny = new TokenRevocations(2, new InMemoryInvalidationBus());
+        List<Claims> issued = new ArrayList<>();
+        for (long userId = 100; userId < 120; userId++) {
+            issued.add(jwtUtil.parseClaims(jwtUtil.generateToken(userId, "u" + userId, "USER")));
+        }
+
+        for (long userId = 100; userId < 120; userId++) tiny.revokeAll(userId);
+
+        // Solo caben 2 entradas: las expulsadas deben seguir rechazándose
+        assertThat(issued.stream().filter(claims -> !tiny.isRevoked(claims)).toList(), empty());
+    }
+
+    @Test
+    void invalidToken_isRejectedByTheFilterBeforeLoadingTheUser() throws Exception {
+        MockHttpServletRequest request = request("/api/products", "no-es-un-jwt");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus(), is(HttpServletResponse.SC_UNAUTHORIZED));
+        assertThat(chain.getRequest(), nullValue());
+        assertThat(request.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE), nullValue());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void interceptor_withoutVerifiedClaims_rejectsTheRequest() throws Exception {
+        MockHttpServletRequest request = request("/api/products", "token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, new Object()), is(false));
+        assertThat(response.getStatus(), is(HttpServletResponse.SC_UNAUTHORIZED));
+    }
+
+    private static MockHttpServletRequest request(String uri, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,62 @@
+package com.sintad.prueba_tecnica_fullstack.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificación de un token con y sin {@link VerifiedTokenCache}: sin caché cada petición paga el
+ * parseo del JWT y el HMAC; con él, un SHA-256 del token y una lectura de Caffeine.
+ * <pre>mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=VerifiedTokenCache</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VerifiedTokenCacheBenchmark {
+
+    // Clientes activos a la vez, cada uno con su token
+    @Param({"1", "1000"})
+    private int clients;
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache cache;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("mysupersecurekeymysupersecurekey123456");
+        cache = new VerifiedTokenCache(jwtUtil, 10_000, new SimpleMeterRegistry());
+        tokens = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            tokens[i] = jwtUtil.generateToken((long) i, "usuario" + i, "USER");
+            // Estado estable: cada token ya se usó una vez
+            cache.verify(tokens[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+
+        private int next;
+
+        String token(String[] tokens) {
+            next = next + 1 == tokens.length ? 0 : next + 1;
+            return tokens[next];
+        }
+    }
+
+    @Benchmark
+    public Claims uncached(Requests requests) {
+        return jwtUtil.parseClaims(requests.token(tokens));
+    }
+
+    @Benchmark
+    public Claims cached(Requests requests) {
+        return cache.verify(requests.token(tokens));
+    }
+}
@@ -0,0 +1,70 @@
+package com.sintad.prueba_tecnica_fullstack.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil("mysupersecurekeymysupersecurekey123456"));
+        cache = new VerifiedTokenCache(jwtUtil, 100, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void verify_parsesEachTokenOnlyOnce() {
+        String admin = jwtUtil.generateToken(1L, "admin", "ADMIN");
+        String user = jwtUtil.generateToken(2L, "usuario", "USER");
+
+        Claims first = cache.verify(admin);
+        Claims second = cache.verify(admin);
+        cache.verify(user);
+
+        assertThat(second, sameInstance(first));
+        assertThat(second.get("role", String.class), is("ADMIN"));
+        verify(jwtUtil, times(2)).parseClaims(anyString());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", VerifiedTokenCache.NAME).tag("result", "hit")
+                .functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void verify_doesNotCacheInvalidTokens() {
+        String tampered = jwtUtil.generateToken(1L, "admin", "ADMIN") + "x";
+
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+
+        verify(jwtUtil, times(2)).parseClaims(tampered);
+    }
+
+    @Test
+    void verify_dropsEntriesOnceTheTokenExpires() {
+        String token = jwtUtil.generateToken(1L, "admin", "ADMIN");
+        cache.verify(token);
+
+        nanos.addAndGet(Duration.ofMinutes(59).toNanos());
+        cache.verify(token);
+        verify(jwtUtil, times(1)).parseClaims(token);
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        cache.verify(token);
+        verify(jwtUtil, times(2)).parseClaims(token);
+    }
+}
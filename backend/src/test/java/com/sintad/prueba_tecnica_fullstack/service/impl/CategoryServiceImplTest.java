@@ -6,6 +6,7 @@ import com.sintad.prueba_tecnica_fullstack.entity.Category;
 import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
 import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.projection.ResponseProjections;
 import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -157,9 +158,9 @@ class CategoryServiceImplTest {
                 .createdAt(existing.getCreatedAt())
                 .updatedAt(LocalDateTime.now()).build();
 
-        when(categoryRepository.save(Mockito.<Category>any())).thenReturn(saved);
+        when(categoryRepository.saveAndFlush(Mockito.<Category>any())).thenReturn(saved);
 
-        CategoryResponse resp = service.update(5L, req);
+        CategoryResponse resp = service.update(5L, req, null);
 
         assertThat(resp.getId(), is(5L));
         assertThat(resp.getName(), is("Snacks"));
@@ -167,7 +168,7 @@ class CategoryServiceImplTest {
 
         verify(categoryRepository).findById(5L);
         verify(categoryRepository).existsByNameIgnoreCaseAndDeletedAtIsNullAndIdNot("Snacks", 5L);
-        verify(categoryRepository).save(Mockito.<Category>any());
+        verify(categoryRepository).saveAndFlush(Mockito.<Category>any());
     }
 
     @Test
@@ -179,10 +180,10 @@ class CategoryServiceImplTest {
         CategoryRequest req = new CategoryRequest();
         req.setName("Tech");
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.update(7L, req));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.update(7L, req, null));
         assertThat(ex.getMessage(), containsString("Ya existe otra categoría activa"));
 
-        verify(categoryRepository, never()).save(any());
+        verify(categoryRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -192,7 +193,7 @@ class CategoryServiceImplTest {
         CategoryRequest req = new CategoryRequest();
         req.setName("Algo");
 
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.update(404L, req));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.update(404L, req, null));
         assertThat(ex.getMessage(), containsString("Categoría no encontrada con ID: 404"));
     }
 
@@ -201,7 +202,7 @@ class CategoryServiceImplTest {
         Category existing = Category.builder().id(9L).name("Eliminar").build();
         when(categoryRepository.findById(9L)).thenReturn(Optional.of(existing));
 
-        service.delete(9L);
+        service.delete(9L, null);
 
         verify(categoryRepository).delete(existing);
     }
@@ -210,21 +211,22 @@ class CategoryServiceImplTest {
     void delete_notFound() {
         when(categoryRepository.findById(9L)).thenReturn(Optional.empty());
 
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.delete(9L));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.delete(9L, null));
         assertThat(ex.getMessage(), containsString("Categoría no encontrada con ID: 9"));
         verify(categoryRepository, never()).delete(Mockito.<Category>any());
     }
 
     @Test
     void search_success() {
-        User u = User.builder().id(1L).fullName("Administrador General").build();
-        Category c1 = Category.builder()
-                .id(1L).name("Tecnología").description("Descripción de Tecnología").user(u)
+        CategoryResponse c1 = CategoryResponse.builder()
+                .id(1L).name("Tecnología").description("Descripción de Tecnología")
+                .userId(1L).userName("Administrador General")
                 .createdAt(LocalDateTime.parse("2025-10-02T22:06:05.313240")).build();
 
-        Page<Category> entities = new PageImpl<>(List.of(c1), PageRequest.of(0, 10), 1);
+        Page<CategoryResponse> projected = new PageImpl<>(List.of(c1), PageRequest.of(0, 10), 1);
 
-        when(categoryRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(entities);
+        when(categoryRepository.findAll(any(Specification.class), any(Pageable.class), same(ResponseProjections.CATEGORY)))
+                .thenReturn(projected);
 
         Page<CategoryResponse> result = service.search(
                 (Specification<?>) (root, query, cb) -> cb.conjunction(),
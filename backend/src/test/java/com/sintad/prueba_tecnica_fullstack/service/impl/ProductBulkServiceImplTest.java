@@ -0,0 +1,222 @@
+package com.sintad.prueba_tecnica_fullstack.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sintad.prueba_tecnica_fullstack.config.JpaConfig;
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductBulkUpdateRequest;
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductRequest;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.ProductRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.BulkResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.ImportResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.export.ExportFormat;
+import com.sintad.prueba_tecnica_fullstack.shared.export.StreamingRowReader;
+import com.sintad.prueba_tecnica_fullstack.shared.stock.StockLedger;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+class ProductBulkServiceImplTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManager entityManager;
+    @Autowired private DataSource dataSource;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private ObjectProvider<StockLedger> stockLedger;
+
+    private ProductBulkServiceImpl service;
+    private User admin;
+    private Category tech;
+    private Category deleted;
+
+    @BeforeEach
+    void setUp() {
+        admin = em.persist(User.builder().fullName("Administrador General").username("admin")
+                .password("x").role("ADMIN").createdAt(LocalDateTime.now()).build());
+        tech = em.persist(Category.builder().name("Tecnología").user(admin).createdAt(LocalDateTime.now()).build());
+        deleted = em.persist(Category.builder().name("Antigua").user(admin).createdAt(LocalDateTime.now())
+                .deletedAt(LocalDateTime.now()).build());
+        em.flush();
+
+        service = new ProductBulkServiceImpl(productRepository, categoryRepository, userRepository,
+                new JdbcTemplate(dataSource), entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManager,
+                new StreamingRowReader(new ObjectMapper()), eventPublisher, stockLedger, 2, 10, 3);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createAll_insertsValidItemsInBatchesAndReportsEachFailure() {
+        BulkResponse result = service.createAll(List.of(
+                request("SSD", tech.getId()),
+                request("", tech.getId()),
+                request("Mouse", deleted.getId()),
+                request("Teclado", tech.getId()),
+                request("Monitor", tech.getId())));
+
+        assertThat(result.getSucceeded(), is(3));
+        assertThat(result.getFailed(), is(2));
+        assertThat(result.getItems().get(1).getErrors(), hasKey("name"));
+        assertThat(result.getItems().get(2).getErrors(), hasKey("categoryId"));
+
+        em.clear();
+        Product monitor = productRepository.findById(result.getItems().get(4).getId()).orElseThrow();
+        assertThat(monitor.getName(), is("Monitor"));
+        assertThat(monitor.getUser().getId(), is(admin.getId()));
+        assertThat(monitor.getCategory().getId(), is(tech.getId()));
+        assertThat(productRepository.count(), is(3L));
+    }
+
+    @Test
+    void updateAll_updatesFoundItemsAndReportsMissingAndDuplicated() {
+        Product ssd = em.persist(Product.builder().name("SSD").price(BigDecimal.TEN).stock(1)
+                .user(admin).category(tech).createdAt(LocalDateTime.now()).build());
+        Product mouse = em.persist(Product.builder().name("Mouse").price(BigDecimal.TEN).stock(1)
+                .user(admin).category(tech).createdAt(LocalDateTime.now()).build());
+        em.flush();
+        em.clear();
+
+        BulkResponse result = service.updateAll(List.of(
+                update(ssd.getId(), 50),
+                update(mouse.getId(), 60),
+                update(999L, 1),
+                update(ssd.getId(), 70),
+                update(null, 1)));
+
+        assertThat(result.getItems().stream().map(BulkResponse.Item::getStatus).toList(), contains(
+                BulkResponse.Status.UPDATED, BulkResponse.Status.UPDATED, BulkResponse.Status.ERROR,
+                BulkResponse.Status.ERROR, BulkResponse.Status.ERROR));
+        assertThat(productRepository.findById(ssd.getId()).orElseThrow().getStock(), is(50));
+        assertThat(productRepository.findById(mouse.getId()).orElseThrow().getStock(), is(60));
+    }
+
+    @Test
+    void updateAll_rejectsNegativeStockAndNonPositivePrice() {
+        Product ssd = em.persist(Product.builder().name("SSD").price(BigDecimal.TEN).stock(1)
+                .user(admin).category(tech).createdAt(LocalDateTime.now()).build());
+        em.flush();
+        em.clear();
+
+        ProductBulkUpdateRequest free = update(ssd.getId(), 1);
+        free.setStock(null);
+        free.setPrice(BigDecimal.ZERO);
+
+        BulkResponse result = service.updateAll(List.of(update(ssd.getId(), -5), free));
+
+        assertThat(result.getSucceeded(), is(0));
+        assertThat(result.getItems().get(0).getErrors(), hasKey("stock"));
+        assertThat(result.getItems().get(1).getErrors(), hasKey("price"));
+        em.clear();
+        Product stored = productRepository.findById(ssd.getId()).orElseThrow();
+        assertThat(stored.getStock(), is(1));
+        assertThat(stored.getPrice(), comparesEqualTo(BigDecimal.TEN));
+    }
+
+    @Test
+    void createAll_rejectsRequestsOverTheLimit() {
+        List<ProductRequest> requests = java.util.Collections.nCopies(11, request("SSD", tech.getId()));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.createAll(requests));
+        assertThat(ex.getMessage(), containsString("Máximo 10"));
+    }
+
+    @Test
+    void importFrom_csv_resolvesCategoriesByNameOrIdAndReportsRowErrors() {
+        String csv = "name,description,price,stock,categoryId,categoryName\r\n"
+                + "SSD,\"Disco, 1TB\",299.99,5,,tecnología\r\n"
+                + "Mouse,,abc,1,,Tecnología\r\n"
+                + "Teclado,,50,2," + tech.getId() + ",\r\n"
+                + "Monitor,,900,1,,Antigua\r\n"
+                + "\"Laptop\n16\"\"\",,3500,1,,Tecnología\r\n";
+
+        ImportResponse result = service.importFrom(stream(csv), ExportFormat.CSV);
+
+        assertThat(result.getTotal(), is(5L));
+        assertThat(result.getImported(), is(3L));
+        assertThat(result.getFailed(), is(2L));
+        assertThat(result.getChunks(), is(2));
+        assertThat(result.getErrors().stream().map(ImportResponse.RowError::getRow).toList(), contains(2L, 4L));
+        assertThat(result.getErrors().get(0).getErrors().get("row"), containsString("price"));
+        assertThat(result.getErrors().get(1).getErrors(), hasKey("categoryId"));
+
+        em.clear();
+        List<Product> products = productRepository.findAll(org.springframework.data.domain.Sort.by("id"));
+        assertThat(products.stream().map(Product::getName).toList(), contains("SSD", "Teclado", "Laptop\n16\""));
+        assertThat(products.get(0).getDescription(), is("Disco, 1TB"));
+        assertThat(products.get(0).getCategory().getId(), is(tech.getId()));
+    }
+
+    @Test
+    void importFrom_ndjson_capsReportedErrors() {
+        StringBuilder ndjson = new StringBuilder("{\"name\":\"SSD\",\"price\":10,\"stock\":1,\"categoryId\":"
+                + tech.getId() + "}\n\n");
+        for (int i = 0; i < 5; i++) {
+            ndjson.append("{\"name\":\"\",\"price\":10,\"stock\":1,\"categoryId\":").append(tech.getId()).append("}\n");
+        }
+        ndjson.append("{no es json}\n");
+
+        ImportResponse result = service.importFrom(stream(ndjson.toString()), ExportFormat.NDJSON);
+
+        assertThat(result.getTotal(), is(7L));
+        assertThat(result.getImported(), is(1L));
+        assertThat(result.getFailed(), is(6L));
+        assertThat(result.getErrors(), hasSize(3));
+        assertThat(result.isErrorsTruncated(), is(true));
+        assertThat(result.getErrors().get(0).getErrors(), hasKey("name"));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProductRequest request(String name, Long categoryId) {
+        return ProductRequest.builder().name(name).price(new BigDecimal("9.90")).stock(3).categoryId(categoryId).build();
+    }
+
+    private static ProductBulkUpdateRequest update(Long id, int stock) {
+        ProductBulkUpdateRequest request = new ProductBulkUpdateRequest();
+        request.setId(id);
+        request.setStock(stock);
+        return request;
+    }
+}
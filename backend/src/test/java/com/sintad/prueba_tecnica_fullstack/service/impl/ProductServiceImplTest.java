@@ -1,5 +1,6 @@
 package com.sintad.prueba_tecnica_fullstack.service.impl;
 
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductListRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.product.ProductResponse;
 import com.sintad.prueba_tecnica_fullstack.entity.Category;
@@ -8,18 +9,29 @@ import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
 import com.sintad.prueba_tecnica_fullstack.repository.ProductRepository;
 import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.projection.ResponseProjections;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangedEvent;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.ConflictException;
 import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.Cursor;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorRequest;
+import com.sintad.prueba_tecnica_fullstack.shared.pagination.CursorSlice;
+import com.sintad.prueba_tecnica_fullstack.shared.stock.StockLedger;
+import com.sintad.prueba_tecnica_fullstack.shared.util.PageableUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -30,6 +42,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +51,9 @@ class ProductServiceImplTest {
     @Mock private ProductRepository productRepository;
     @Mock private UserRepository userRepository;
     @Mock private CategoryRepository categoryRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ObjectProvider<StockLedger> stockLedger;
 
     @InjectMocks
     private ProductServiceImpl service;
@@ -181,9 +197,9 @@ class ProductServiceImplTest {
                 .category(newCat)
                 .createdAt(existing.getCreatedAt())
                 .updatedAt(LocalDateTime.now()).build();
-        when(productRepository.save(Mockito.<Product>any())).thenReturn(saved);
+        when(productRepository.saveAndFlush(Mockito.<Product>any())).thenReturn(saved);
 
-        ProductResponse resp = service.update(70L, req);
+        ProductResponse resp = service.update(70L, req, null);
 
         assertThat(resp.getId(), is(70L));
         assertThat(resp.getName(), is("Laptop Pro"));
@@ -195,7 +211,7 @@ class ProductServiceImplTest {
 
         verify(productRepository).findByIdAndDeletedAtIsNull(70L);
         verify(categoryRepository).findByIdAndDeletedAtIsNull(2L);
-        verify(productRepository).save(Mockito.<Product>any());
+        verify(productRepository).saveAndFlush(Mockito.<Product>any());
     }
 
     @Test
@@ -216,9 +232,9 @@ class ProductServiceImplTest {
                 .price(new BigDecimal("500.00")).stock(6)
                 .createdAt(existing.getCreatedAt())
                 .updatedAt(LocalDateTime.now()).build();
-        when(productRepository.save(Mockito.<Product>any())).thenReturn(saved);
+        when(productRepository.saveAndFlush(Mockito.<Product>any())).thenReturn(saved);
 
-        ProductResponse resp = service.update(71L, req);
+        ProductResponse resp = service.update(71L, req, null);
 
         assertThat(resp.getId(), is(71L));
         assertThat(resp.getDescription(), is("Laser"));
@@ -233,9 +249,9 @@ class ProductServiceImplTest {
         ProductRequest req = new ProductRequest();
         req.setName("X");
 
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.update(70L, req));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.update(70L, req, null));
         assertThat(ex.getMessage(), containsString("Producto no encontrado con ID: 70"));
-        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -248,10 +264,10 @@ class ProductServiceImplTest {
 
         when(categoryRepository.findByIdAndDeletedAtIsNull(999L)).thenReturn(Optional.empty());
 
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.update(80L, req));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.update(80L, req, null));
         assertThat(ex.getMessage(), containsString("Categoría no encontrada con ID: 999"));
 
-        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -259,7 +275,7 @@ class ProductServiceImplTest {
         Product existing = Product.builder().id(90L).name("Monitor").build();
         when(productRepository.findByIdAndDeletedAtIsNull(90L)).thenReturn(Optional.of(existing));
 
-        service.delete(90L);
+        service.delete(90L, null);
 
         verify(productRepository).save(productCaptor.capture());
         Product saved = productCaptor.getValue();
@@ -271,24 +287,94 @@ class ProductServiceImplTest {
     void delete_notFound() {
         when(productRepository.findByIdAndDeletedAtIsNull(90L)).thenReturn(Optional.empty());
 
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.delete(90L));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.delete(90L, null));
         assertThat(ex.getMessage(), containsString("Producto no encontrado con ID: 90"));
 
         verify(productRepository, never()).save(any());
     }
 
     @Test
-    void search_success_mapsPage() {
-        User u = User.builder().id(1L).fullName("Administrador General").build();
-        Category c = Category.builder().id(2L).name("Tecnología").build();
-        Product p = Product.builder()
+    void update_staleVersion_conflictCarriesTheCurrentState() {
+        Product existing = Product.builder().id(72L).name("Teclado").stock(4).version(5L)
+                .createdAt(LocalDateTime.now()).build();
+        when(productRepository.findByIdAndDeletedAtIsNull(72L)).thenReturn(Optional.of(existing));
+
+        ProductRequest req = new ProductRequest();
+        req.setName("Teclado mecánico");
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> service.update(72L, req, 4L));
+
+        ProductResponse current = (ProductResponse) ex.getCurrent();
+        assertThat(current.getName(), is("Teclado"));
+        assertThat(current.getVersion(), is(5L));
+        assertThat(existing.getName(), is("Teclado"));
+        verify(productRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void delete_staleVersion_isRejected() {
+        Product existing = Product.builder().id(91L).name("Monitor").version(2L).build();
+        when(productRepository.findByIdAndDeletedAtIsNull(91L)).thenReturn(Optional.of(existing));
+
+        assertThrows(ConflictException.class, () -> service.delete(91L, 1L));
+
+        assertThat(existing.getDeletedAt(), nullValue());
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void adjustStock_success_returnsNewStockAndPublishesChange() {
+        when(productRepository.adjustStock(eq(90L), eq(-3), any())).thenReturn(1);
+        when(productRepository.findStockById(90L)).thenReturn(Optional.of(7));
+
+        assertThat(service.adjustStock(90L, -3), is(7));
+
+        verify(productRepository, never()).findByIdAndDeletedAtIsNull(any());
+        verify(eventPublisher).publishEvent(new EntityChangedEvent(Product.class));
+    }
+
+    @Test
+    void adjustStock_insufficientStock_conflict() {
+        when(productRepository.adjustStock(eq(90L), eq(-5), any())).thenReturn(0);
+        when(productRepository.findStockById(90L)).thenReturn(Optional.of(2));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> service.adjustStock(90L, -5));
+        assertThat(ex.getMessage(), containsString("disponible 2"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void adjustStock_notFound() {
+        when(productRepository.adjustStock(eq(90L), eq(1), any())).thenReturn(0);
+        when(productRepository.findStockById(90L)).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.adjustStock(90L, 1));
+        assertThat(ex.getMessage(), containsString("Producto no encontrado con ID: 90"));
+    }
+
+    @Test
+    void adjustStock_withLedger_skipsTheDatabase() {
+        StockLedger ledger = mock(StockLedger.class);
+        when(stockLedger.getIfAvailable()).thenReturn(ledger);
+        when(ledger.adjust(90L, -3)).thenReturn(4);
+
+        assertThat(service.adjustStock(90L, -3), is(4));
+
+        verifyNoInteractions(productRepository, transactionManager, eventPublisher);
+    }
+
+    @Test
+    void search_success_usesResponseProjection() {
+        ProductResponse p = ProductResponse.builder()
                 .id(1L).name("SSD").description("NVMe")
                 .price(new BigDecimal("299.99")).stock(20)
-                .user(u).category(c)
+                .userId(1L).userName("Administrador General")
+                .categoryId(2L).categoryName("Tecnología")
                 .createdAt(LocalDateTime.now()).build();
 
-        Page<Product> entities = new PageImpl<>(List.of(p), PageRequest.of(0, 10), 1);
-        when(productRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(entities);
+        Page<ProductResponse> projected = new PageImpl<>(List.of(p), PageRequest.of(0, 10), 1);
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class), same(ResponseProjections.PRODUCT)))
+                .thenReturn(projected);
 
         Page<ProductResponse> result = service.search(
                 (Specification<?>) (root, query, cb) -> cb.conjunction(),
@@ -305,4 +391,65 @@ class ProductServiceImplTest {
         assertThat(resp.getUserId(), is(1L));
         assertThat(resp.getUserName(), is("Administrador General"));
     }
+
+    @Test
+    void scroll_success_returnsNextCursorFromLastRow() {
+        Product p1 = Product.builder().id(30L).name("A").price(new BigDecimal("10.00")).build();
+        Product p2 = Product.builder().id(20L).name("B").price(new BigDecimal("10.00")).build();
+        Product extra = Product.builder().id(10L).name("C").price(new BigDecimal("5.00")).build();
+
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(List.of(p1, p2, extra));
+
+        CursorRequest request = new CursorRequest("price", Sort.Direction.DESC, 2, null);
+        CursorSlice<ProductResponse> result = service.scroll(
+                (Specification<?>) (root, query, cb) -> cb.conjunction(), request);
+
+        assertThat(result.content(), hasSize(2));
+        assertThat(result.content().get(1).getId(), is(20L));
+        assertThat(result.hasNext(), is(true));
+
+        Cursor next = Cursor.decode(result.nextCursor());
+        assertThat(next.id(), is(20L));
+        assertThat(next.sort(), is("price"));
+        assertThat(next.direction(), is(Sort.Direction.DESC));
+        assertThat(next.value(), is("10.00"));
+    }
+
+    @Test
+    void scroll_lastPage_hasNoNextCursor() {
+        Product p1 = Product.builder().id(5L).name("A").build();
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(List.of(p1));
+
+        CursorSlice<ProductResponse> result = service.scroll(
+                (Specification<?>) (root, query, cb) -> cb.conjunction(),
+                new CursorRequest("id", Sort.Direction.ASC, 10, null));
+
+        assertThat(result.content(), hasSize(1));
+        assertThat(result.nextCursor(), nullValue());
+    }
+
+    @Test
+    void cursorRequest_rejectsCursorFromAnotherSort() {
+        Cursor cursor = new Cursor("name", Sort.Direction.ASC, 1L, "A");
+        assertThrows(IllegalArgumentException.class,
+                () -> new CursorRequest("price", Sort.Direction.ASC, 10, cursor));
+    }
+
+    @Test
+    void cursorFromListRequest_rejectsSortOutsideTheEntityWhitelist() {
+        ProductListRequest listRequest = new ProductListRequest();
+        listRequest.setCursor("");
+
+        listRequest.setSort("password");
+        assertThrows(IllegalArgumentException.class,
+                () -> PageableUtil.cursorFromListRequest(listRequest, User.SORTABLE_FIELDS));
+
+        listRequest.setSort("user.password");
+        assertThrows(IllegalArgumentException.class,
+                () -> PageableUtil.cursorFromListRequest(listRequest, Product.SORTABLE_FIELDS));
+
+        listRequest.setSort("category.name");
+        assertThat(PageableUtil.cursorFromListRequest(listRequest, Product.SORTABLE_FIELDS).sortField(),
+                is("category.name"));
+    }
 }
@@ -0,0 +1,145 @@
+package com.sintad.prueba_tecnica_fullstack.service.impl;
+
+import com.sintad.prueba_tecnica_fullstack.config.JpaConfig;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.ProductRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.ConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Ajustes desde varios hilos, cada uno en su propia transacción confirmada. */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({JpaConfig.class, ProductServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired private ProductServiceImpl productService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        productId = tx.execute(status -> {
+            User admin = userRepository.save(User.builder().fullName("Administrador General").username("admin")
+                    .password("x").role("ADMIN").createdAt(LocalDateTime.now()).build());
+            Category category = categoryRepository.save(Category.builder().name("Tecnología").user(admin)
+                    .createdAt(LocalDateTime.now()).build());
+            return productRepository.save(Product.builder().name("SSD").price(BigDecimal.TEN).stock(1000)
+                    .user(admin).category(category).createdAt(LocalDateTime.now()).build()).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            productRepository.deleteAll();
+            categoryRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void concurrentMixedAdjustments_loseNoUpdates() throws Exception {
+        List<Integer> results = run(800, i -> i % 2 == 0 ? -3 : 2);
+
+        // 400 x (-3) + 400 x 2 = -400
+        assertThat(stock(), is(600));
+        assertThat(results, everyItem(allOf(greaterThanOrEqualTo(0), lessThanOrEqualTo(1400))));
+        assertThat(productRepository.findById(productId).orElseThrow().getUpdatedAt(), notNullValue());
+    }
+
+    @Test
+    void concurrentSales_neverOversell() throws Exception {
+        // 1200 ventas de 1 unidad sobre 1000 disponibles: exactamente 200 deben fallar
+        List<Integer> results = run(1200, i -> -1);
+
+        assertThat(results.stream().filter(r -> r >= 0).count(), is(1000L));
+        assertThat(results.stream().filter(r -> r < 0).count(), is(200L));
+        assertThat(stock(), is(0));
+    }
+
+    @Test
+    void adjustStock_bumpsTheVersion_soAStaleCopyCannotOverwriteIt() {
+        Product stale = productRepository.findById(productId).orElseThrow();
+
+        productService.adjustStock(productId, -5);
+
+        assertThat(productRepository.findById(productId).orElseThrow().getVersion(), is(stale.getVersion() + 1));
+        stale.setStock(1000);
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> tx.executeWithoutResult(status -> productRepository.saveAndFlush(stale)));
+        assertThat(stock(), is(995));
+    }
+
+    /** Devuelve el stock resultante de cada ajuste, o -1 si se rechazó por stock insuficiente. */
+    private List<Integer> run(int adjustments, IntUnaryOperator delta) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < adjustments; i++) {
+                int d = delta.applyAsInt(i);
+                Callable<Integer> task = () -> {
+                    start.await();
+                    try {
+                        return productService.adjustStock(productId, d);
+                    } catch (ConflictException e) {
+                        return -1;
+                    }
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int stock() {
+        return productRepository.findStockById(productId).orElseThrow();
+    }
+}
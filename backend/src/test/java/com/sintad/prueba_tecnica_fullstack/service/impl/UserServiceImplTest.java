@@ -4,6 +4,9 @@ import com.sintad.prueba_tecnica_fullstack.dto.user.UserRequest;
 import com.sintad.prueba_tecnica_fullstack.dto.user.UserResponse;
 import com.sintad.prueba_tecnica_fullstack.entity.User;
 import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.projection.ResponseProjections;
+import com.sintad.prueba_tecnica_fullstack.security.PrincipalCache;
+import com.sintad.prueba_tecnica_fullstack.security.TokenRevocations;
 import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +32,9 @@ class UserServiceImplTest {
 
     @Mock private UserRepository userRepository;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private PrincipalCache principalCache;
+    @Mock private TokenRevocations tokenRevocations;
+    @Mock private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private UserServiceImpl service;
@@ -124,13 +131,20 @@ class UserServiceImplTest {
                 .password("ENC_newpass").role("ADMIN")
                 .createdAt(existing.getCreatedAt())
                 .updatedAt(LocalDateTime.now()).build();
-        when(userRepository.save(Mockito.<User>any())).thenReturn(updated);
+        when(userRepository.saveAndFlush(Mockito.<User>any())).thenReturn(updated);
 
-        UserResponse resp = service.update(5L, req);
+        UserResponse resp = service.update(5L, req, null);
 
         assertThat(resp.getId(), is(5L));
         assertThat(resp.getUsername(), is("userA2"));
         assertThat(resp.getRole(), is("ADMIN"));
+        verify(principalCache).evictAfterCommit("userA");
+        verify(tokenRevocations).revokeAllAfterCommit(5L);
+        // El hash no retiene la conexión: va antes de abrir la transacción
+        InOrder order = inOrder(passwordEncoder, transactionManager, userRepository);
+        order.verify(passwordEncoder).encode("newpass");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).findByIdAndDeletedAtIsNull(5L);
     }
 
     @Test
@@ -150,29 +164,30 @@ class UserServiceImplTest {
                 .password("HASH").role("ADMIN")
                 .createdAt(existing.getCreatedAt())
                 .updatedAt(LocalDateTime.now()).build();
-        when(userRepository.save(Mockito.<User>any())).thenReturn(updated);
+        when(userRepository.saveAndFlush(Mockito.<User>any())).thenReturn(updated);
 
-        UserResponse resp = service.update(6L, req);
+        UserResponse resp = service.update(6L, req, null);
 
         assertThat(resp.getId(), is(6L));
         assertThat(resp.getUsername(), is("userB"));
         assertThat(resp.getRole(), is("ADMIN"));
         verify(passwordEncoder, never()).encode(any());
+        verify(tokenRevocations).revokeAllAfterCommit(6L);
     }
 
     @Test
     void update_fails_nullRequest() {
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.update(1L, null));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.update(1L, null, null));
         assertThat(ex.getMessage(), containsString("no puede ser nulo"));
         verify(userRepository, never()).findByIdAndDeletedAtIsNull(anyLong());
-        verify(userRepository, never()).save(Mockito.<User>any());
+        verify(userRepository, never()).saveAndFlush(Mockito.<User>any());
     }
 
     @Test
     void update_fails_userNotFound() {
         when(userRepository.findByIdAndDeletedAtIsNull(7L)).thenReturn(Optional.empty());
         UserRequest req = new UserRequest();
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.update(7L, req));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.update(7L, req, null));
         assertThat(ex.getMessage(), containsString("Usuario no encontrado con ID: 7"));
     }
 
@@ -188,9 +203,9 @@ class UserServiceImplTest {
 
         when(userRepository.existsByUsernameAndDeletedAtIsNull("taken")).thenReturn(true);
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.update(8L, req));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.update(8L, req, null));
         assertThat(ex.getMessage(), containsString("ya está en uso"));
-        verify(userRepository, never()).save(Mockito.<User>any());
+        verify(userRepository, never()).saveAndFlush(Mockito.<User>any());
     }
 
     @Test
@@ -198,28 +213,31 @@ class UserServiceImplTest {
         User existing = User.builder().id(9L).username("userD").build();
         when(userRepository.findByIdAndDeletedAtIsNull(9L)).thenReturn(Optional.of(existing));
 
-        service.delete(9L);
+        service.delete(9L, null);
 
         verify(userRepository).save(userCaptor.capture());
         User saved = userCaptor.getValue();
         assertThat(saved.getId(), is(9L));
         assertThat(saved.getDeletedAt(), notNullValue());
+        verify(principalCache).evictAfterCommit("userD");
+        verify(tokenRevocations).revokeAllAfterCommit(9L);
     }
 
     @Test
     void delete_notFound() {
         when(userRepository.findByIdAndDeletedAtIsNull(9L)).thenReturn(Optional.empty());
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.delete(9L));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.delete(9L, null));
         assertThat(ex.getMessage(), containsString("Usuario no encontrado con ID: 9"));
         verify(userRepository, never()).save(Mockito.<User>any());
     }
 
     @Test
     void search_success_withSpecAndNotDeleted() {
-        User u = User.builder().id(1L).fullName("Admin").username("admin").role("ADMIN").build();
-        Page<User> page = new PageImpl<>(List.of(u), PageRequest.of(0, 10), 1);
+        UserResponse u = UserResponse.builder().id(1L).fullName("Admin").username("admin").role("ADMIN").build();
+        Page<UserResponse> page = new PageImpl<>(List.of(u), PageRequest.of(0, 10), 1);
 
-        when(userRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        when(userRepository.findAll(any(Specification.class), any(Pageable.class), same(ResponseProjections.USER)))
+                .thenReturn(page);
 
         Page<UserResponse> result = service.search(
                 (Specification<?>) (root, query, cb) -> cb.equal(root.get("role"), "ADMIN"),
@@ -233,10 +251,11 @@ class UserServiceImplTest {
 
     @Test
     void search_success_nullSpec_appliesNotDeleted() {
-        User u = User.builder().id(2L).fullName("User").username("user").role("USER").build();
-        Page<User> page = new PageImpl<>(List.of(u), PageRequest.of(0, 10), 1);
+        UserResponse u = UserResponse.builder().id(2L).fullName("User").username("user").role("USER").build();
+        Page<UserResponse> page = new PageImpl<>(List.of(u), PageRequest.of(0, 10), 1);
 
-        when(userRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        when(userRepository.findAll(any(Specification.class), any(Pageable.class), same(ResponseProjections.USER)))
+                .thenReturn(page);
 
         Page<UserResponse> result = service.search(null, PageRequest.of(0, 10));
 
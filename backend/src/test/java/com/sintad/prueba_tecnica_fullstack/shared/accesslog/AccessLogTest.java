@@ -0,0 +1,100 @@
+package com.sintad.prueba_tecnica_fullstack.shared.accesslog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AccessLogTest {
+
+    @TempDir private Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccessLog accessLog;
+
+    @AfterEach
+    void tearDown() {
+        accessLog.stop();
+    }
+
+    @Test
+    void filter_recordsOneFixedLayoutLinePerRequest() throws Exception {
+        accessLog = accessLog(DataSize.ofMegabytes(1), 16, AccessLog.Overflow.DROP);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new AccessLogFilter(accessLog).doFilter(new MockHttpServletRequest("GET", "/api/products/7"), response,
+                new MockFilterChain());
+        accessLog.drain();
+
+        List<String> lines = Files.readAllLines(dir.resolve("access.log"));
+        assertThat(lines, hasSize(1));
+        assertThat(lines.get(0), matchesPattern("\\d{4}-\\d{2}-\\d{2}T\\S+Z GET /api/products/7 200 \\d+\\.\\d{3} ms"));
+    }
+
+    @Test
+    void fullRingWithDropPolicy_discardsAndCountsInsteadOfWaiting() throws Exception {
+        accessLog = accessLog(DataSize.ofMegabytes(1), 4, AccessLog.Overflow.DROP);
+
+        for (int i = 0; i < 6; i++) accessLog.record("GET", "/api/products/" + i, 200, 1_000);
+        accessLog.drain();
+
+        assertThat(Files.readAllLines(dir.resolve("access.log")), hasSize(4));
+        assertThat(meterRegistry.get("http.access-log.dropped").counter().count(), is(2.0));
+    }
+
+    @Test
+    void manyProducers_withBlockPolicy_loseNothing() throws Exception {
+        accessLog = accessLog(DataSize.ofMegabytes(10), 8, AccessLog.Overflow.BLOCK);
+        accessLog.start();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < 8; p++) {
+                int producer = p;
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) accessLog.record("POST", "/p" + producer + "/" + i, 201, 5_000);
+                }));
+            }
+            for (Future<?> producer : producers) producer.get(30, TimeUnit.SECONDS);
+        }
+        accessLog.stop();
+
+        List<String> lines = Files.readAllLines(dir.resolve("access.log"));
+        assertThat(lines, hasSize(4000));
+        assertThat(lines, hasItem(endsWith(" POST /p3/499 201 0.005 ms")));
+        assertThat(meterRegistry.get("http.access-log.dropped").counter().count(), is(0.0));
+    }
+
+    @Test
+    void exceedingMaxFileSize_rollsAndKeepsOnlyMaxHistory() throws Exception {
+        accessLog = accessLog(DataSize.ofBytes(100), 16, AccessLog.Overflow.DROP);
+
+        for (int i = 0; i < 6; i++) {
+            accessLog.record("GET", "/api/categories", 200, 1_000);
+            accessLog.drain();
+        }
+
+        // Cada línea ocupa ~65 bytes: una por fichero, el activo más 2 rotados
+        assertThat(accessLog.rolledFiles(), hasSize(2));
+        assertThat(Files.readAllLines(dir.resolve("access.log")), hasSize(1));
+    }
+
+    private AccessLog accessLog(DataSize maxFileSize, int bufferSize, AccessLog.Overflow overflow) {
+        return new AccessLog(dir.resolve("access.log"), maxFileSize, 2, bufferSize, overflow, meterRegistry);
+    }
+}
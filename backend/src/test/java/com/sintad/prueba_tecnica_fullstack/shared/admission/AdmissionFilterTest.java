@@ -0,0 +1,131 @@
+package com.sintad.prueba_tecnica_fullstack.shared.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void limit_isDerivedFromTheConnectionPools() {
+        HikariDataSource primary = new HikariDataSource();
+        primary.setMaximumPoolSize(10);
+        HikariDataSource replica = new HikariDataSource();
+        replica.setMaximumPoolSize(5);
+
+        new AdmissionFilter(List.of(primary, replica), 0, 2, Duration.ofSeconds(1), meterRegistry);
+
+        assertThat(meterRegistry.get("http.admission.limit").gauge().value(), is(30.0));
+    }
+
+    @Test
+    void manyVirtualThreads_neverExceedTheLimit() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(List.of(), 4, 1, Duration.ofSeconds(30), meterRegistry);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Integer>> requests = IntStream.range(0, 200)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        MockHttpServletResponse response = new MockHttpServletResponse();
+                        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+                            @Override
+                            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                                try {
+                                    Thread.sleep(2);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                                inFlight.decrementAndGet();
+                            }
+                        });
+                        try {
+                            filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), response, chain);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                        return response.getStatus();
+                    }, executor))
+                    .toList();
+
+            for (CompletableFuture<Integer> request : requests) {
+                assertThat(request.get(30, TimeUnit.SECONDS), is(200));
+            }
+        }
+        assertThat(maxInFlight.get(), lessThanOrEqualTo(4));
+        assertThat(meterRegistry.get("http.admission.active").gauge().value(), is(0.0));
+    }
+
+    @Test
+    void saturated_rejectsWith503AfterTheQueueTimeout() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(List.of(), 1, 1, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            entered.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS), is(true));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), rejected, chain);
+
+        assertThat(rejected.getStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+        assertThat(rejected.getHeader("Retry-After"), is("1"));
+        assertThat(chain.getRequest(), nullValue());
+        assertThat(meterRegistry.get("http.admission.rejected").counter().count(), is(1.0));
+
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, new MockFilterChain());
+        assertThat(health.getStatus(), is(200));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void asyncRequest_keepsItsPermitUntilTheAsyncWorkCompletes() throws Exception {
+        AdmissionFilter filter = new AdmissionFilter(List.of(), 1, 1, Duration.ofMillis(10), meterRegistry);
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/products/export");
+        export.setAsyncSupported(true);
+
+        filter.doFilter(export, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(meterRegistry.get("http.admission.active").gauge().value(), is(1.0));
+
+        export.getAsyncContext().complete();
+        assertThat(meterRegistry.get("http.admission.active").gauge().value(), is(0.0));
+    }
+}
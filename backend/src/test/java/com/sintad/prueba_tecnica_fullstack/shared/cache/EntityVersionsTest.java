@@ -0,0 +1,99 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import com.sintad.prueba_tecnica_fullstack.config.JpaConfig;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.bus.InMemoryInvalidationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/** Las versiones solo avanzan al confirmar, así que cada paso va en su propia transacción. */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({JpaConfig.class, EntityVersions.class, InMemoryInvalidationBus.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityVersionsTest {
+
+    @Autowired private EntityVersions entityVersions;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        categoryId = tx.execute(status -> {
+            User admin = userRepository.save(User.builder().fullName("Administrador General").username("admin")
+                    .password("x").role("ADMIN").createdAt(LocalDateTime.now()).build());
+            return categoryRepository.save(Category.builder().name("Tecnología").user(admin)
+                    .createdAt(LocalDateTime.now()).build()).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            categoryRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void committedUpdate_bumpsTheTypeOnceAndLeavesOthersAlone() {
+        String categories = entityVersions.snapshot(Category.class).tag();
+        String products = entityVersions.snapshot(Product.class).tag();
+
+        tx.executeWithoutResult(status -> {
+            Category category = categoryRepository.findById(categoryId).orElseThrow();
+            category.setName("Electrónica");
+            categoryRepository.saveAndFlush(category);
+            assertThat(entityVersions.snapshot(Category.class).tag(), is(categories));
+
+            category.setDescription("Dispositivos");
+            categoryRepository.saveAndFlush(category);
+        });
+
+        String after = entityVersions.snapshot(Category.class).tag();
+        assertThat(after, not(categories));
+        assertThat(version(after), is(version(categories) + 1));
+        assertThat(entityVersions.snapshot(Product.class).tag(), is(products));
+    }
+
+    @Test
+    void rolledBackUpdate_keepsTheVersion() {
+        String before = entityVersions.snapshot(Category.class).tag();
+
+        tx.executeWithoutResult(status -> {
+            Category category = categoryRepository.findById(categoryId).orElseThrow();
+            category.setName("Electrónica");
+            categoryRepository.saveAndFlush(category);
+            status.setRollbackOnly();
+        });
+
+        assertThat(entityVersions.snapshot(Category.class).tag(), is(before));
+    }
+
+    private static long version(String tag) {
+        return Long.parseLong(tag.substring(tag.lastIndexOf('.') + 1));
+    }
+}
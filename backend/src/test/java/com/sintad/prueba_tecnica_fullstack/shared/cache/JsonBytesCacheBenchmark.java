@@ -0,0 +1,112 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sintad.prueba_tecnica_fullstack.dto.product.ProductResponse;
+import com.sintad.prueba_tecnica_fullstack.shared.dto.ApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura del cuerpo de {@code GET /api/products/{id}}: {@code ApiResponse.ok(dto)} por el
+ * conversor de Jackson, como antes, frente a los bytes de {@link JsonBytesCache} por el conversor
+ * de {@code byte[]}. Ambos escriben en un flujo que descarta, así que la asignación medida es la
+ * del camino de escritura. Con el perfilador de GC se ve en {@code gc.alloc.rate.norm}:
+ * <pre>mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=JsonBytesCache -Djmh.args="-prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBytesCacheBenchmark {
+
+    private static final String KEY = "product:\"1-v3-0\"";
+
+    private final MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter();
+    private final ByteArrayHttpMessageConverter bytes = new ByteArrayHttpMessageConverter();
+    private JsonBytesCache cache;
+    private ProductResponse product;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        jackson.setObjectMapper(objectMapper);
+        cache = new JsonBytesCache(objectMapper, DataSize.ofMegabytes(16), new SimpleMeterRegistry());
+        product = ProductResponse.builder()
+                .id(1L)
+                .name("Laptop Lenovo ThinkPad")
+                .description("Laptop de alto rendimiento con 32 GB de RAM y SSD de 1 TB")
+                .price(new BigDecimal("3500.50"))
+                .stock(10)
+                .categoryId(2L)
+                .categoryName("Tecnología")
+                .userId(1L)
+                .userName("Administrador General")
+                .createdAt(LocalDateTime.parse("2025-10-02T22:06:05"))
+                .version(3L)
+                .build();
+        // Estado estable: el producto ya se sirvió una vez
+        cache.get(KEY, () -> ApiResponse.ok(product));
+    }
+
+    @State(Scope.Thread)
+    public static class Response implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final Discarding body = new Discarding();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    @Benchmark
+    public long jackson(Response response) throws IOException {
+        jackson.write(ApiResponse.ok(product), MediaType.APPLICATION_JSON, response);
+        return response.body.written;
+    }
+
+    @Benchmark
+    public long cachedBytes(Response response) throws IOException {
+        bytes.write(cache.get(KEY, () -> ApiResponse.ok(product)), MediaType.APPLICATION_JSON, response);
+        return response.body.written;
+    }
+
+    private static final class Discarding extends OutputStream {
+
+        private long written;
+
+        @Override
+        public void write(int b) {
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written += len;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.sintad.prueba_tecnica_fullstack.shared.cache.bus;
+
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.security.JwtUtil;
+import com.sintad.prueba_tecnica_fullstack.security.TokenRevocations;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangedEvent;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityVersions;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/** Dos nodos sobre la misma BD; cada test usa su propia región porque las tablas persisten entre tests. */
+@JdbcTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcInvalidationBusTest {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private JdbcInvalidationBus nodeA;
+    private JdbcInvalidationBus nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = bus();
+        nodeB = bus();
+    }
+
+    @Test
+    void publishedKeys_reachOtherNodesInOrderButNotThePublisher() {
+        Recorder onA = new Recorder();
+        Recorder onB = new Recorder();
+        nodeA.subscribe("orden", onA);
+        nodeB.subscribe("orden", onB);
+
+        nodeA.publish("orden", "1");
+        nodeA.publish("orden", "2");
+        nodeA.poll();
+        nodeB.poll();
+        nodeB.poll();
+
+        assertThat(onA.keys, empty());
+        assertThat(onB.keys, contains("1", "2"));
+        assertThat(onB.dropped, is(0));
+    }
+
+    @Test
+    void lateCommit_fillsTheGapWithoutDroppingAnything() {
+        Recorder onB = new Recorder();
+        nodeB.subscribe("tardio", onB);
+
+        nodeA.publish("tardio", "1");
+        nodeA.publish("tardio", "2");
+        // El mensaje 1 sigue sin confirmar cuando B lee el 2
+        Map<String, Object> first = jdbcTemplate.queryForMap(
+                "select * from cache_invalidation_log where region = ? and cache_key = '1'", "tardio");
+        jdbcTemplate.update("delete from cache_invalidation_log where id = ?", first.get("ID"));
+        nodeB.poll();
+        assertThat(onB.keys, contains("2"));
+
+        jdbcTemplate.update("insert into cache_invalidation_log (id, region, cache_key, origin, created_at) "
+                + "values (?, ?, ?, ?, ?)", first.get("ID"), "tardio", "1", first.get("ORIGIN"), first.get("CREATED_AT"));
+        nodeB.poll();
+
+        assertThat(onB.keys, contains("2", "1"));
+        assertThat(onB.dropped, is(0));
+    }
+
+    @Test
+    void gapThatNeverCommits_dropsEveryRegionAfterTheTimeout() {
+        JdbcInvalidationBus impatient = new JdbcInvalidationBus(jdbcTemplate, Duration.ofSeconds(1),
+                Duration.ofHours(2), Duration.ZERO);
+        Recorder onB = new Recorder();
+        Recorder other = new Recorder();
+        impatient.subscribe("purgada", onB);
+        impatient.subscribe("otra", other);
+
+        nodeA.publish("purgada", "1");
+        nodeA.publish("purgada", "2");
+        jdbcTemplate.update("delete from cache_invalidation_log where region = ? and cache_key = '1'", "purgada");
+        impatient.poll();
+
+        assertThat(onB.keys, contains("2"));
+        assertThat(onB.dropped, is(1));
+        assertThat(other.dropped, is(1));
+    }
+
+    @Test
+    void publishInsideTransaction_isOnlyDeliveredIfItCommits() {
+        Recorder onB = new Recorder();
+        nodeB.subscribe("transaccion", onB);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            nodeA.publish("transaccion", "revertido");
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> nodeA.publish("transaccion", "confirmado"));
+        nodeB.poll();
+
+        assertThat(onB.keys, contains("confirmado"));
+        assertThat(onB.dropped, is(0));
+    }
+
+    @Test
+    void entityVersionBump_changesTheValidatorOnTheOtherNode() {
+        EntityVersions versionsA = new EntityVersions(nodeA);
+        EntityVersions versionsB = new EntityVersions(nodeB);
+        String before = versionsB.snapshot(Category.class).tag();
+
+        versionsA.onEntityChanged(new EntityChangedEvent(Category.class));
+        assertThat(versionsB.snapshot(Category.class).tag(), is(before));
+
+        nodeB.poll();
+        assertThat(versionsB.snapshot(Category.class).tag(), not(before));
+    }
+
+    @Test
+    void restartedNode_replaysRetainedRevocationsBeforeServing() {
+        JwtUtil jwtUtil = new JwtUtil("mysupersecurekeymysupersecurekey123456");
+        Claims issued = jwtUtil.parseClaims(jwtUtil.generateToken(42L, "usuario", "USER"));
+        new TokenRevocations(100, nodeA).revokeAll(42L);
+
+        // Nodo B reiniciado: bus y denylist nuevos, sin ningún poll() todavía
+        TokenRevocations restarted = new TokenRevocations(100, bus());
+
+        assertThat(restarted.isRevoked(issued), is(true));
+    }
+
+    @Test
+    void replay_onlyCoversTheRequestedWindow() {
+        nodeA.publish("ventana", "antiguo");
+        jdbcTemplate.update("update cache_invalidation_log set created_at = ? where region = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofMinutes(10))), "ventana");
+        nodeA.publish("ventana", "reciente");
+
+        Recorder onB = new Recorder();
+        nodeB.subscribe("ventana", onB, Duration.ofMinutes(5));
+        nodeB.poll();
+
+        assertThat(onB.keys, contains("reciente"));
+    }
+
+    private JdbcInvalidationBus bus() {
+        return new JdbcInvalidationBus(jdbcTemplate, Duration.ofSeconds(1), Duration.ofHours(2), Duration.ofMinutes(1));
+    }
+
+    private static class Recorder implements InvalidationHandler {
+
+        private final List<String> keys = new ArrayList<>();
+        private int dropped;
+
+        @Override
+        public void invalidate(String key) {
+            keys.add(key);
+        }
+
+        @Override
+        public void invalidateAll() {
+            dropped++;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.sintad.prueba_tecnica_fullstack.shared.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        meterRegistry = new SimpleMeterRegistry();
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica,
+                new ReadYourWritesWindow(Duration.ofMinutes(1), 100), meterRegistry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(txManager);
+        readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+
+        authenticate("admin");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransaction_goesToReplica() {
+        assertThat(readOnly.execute(s -> node()), is("replica"));
+        assertThat(count("replica", "read-only"), is(1.0));
+    }
+
+    @Test
+    void readWriteTransaction_goesToPrimary() {
+        assertThat(readWrite.execute(s -> node()), is("primary"));
+        assertThat(count("primary", "read-write"), is(1.0));
+    }
+
+    @Test
+    void readAfterCommittedWrite_staysOnPrimaryForSameUserOnly() {
+        readWrite.execute(s -> jdbc.update("update node set name = name"));
+
+        assertThat(readOnly.execute(s -> node()), is("primary"));
+        assertThat(count("primary", "read-your-writes"), is(1.0));
+
+        authenticate("otro");
+        assertThat(readOnly.execute(s -> node()), is("replica"));
+    }
+
+    @Test
+    void rolledBackWrite_doesNotPinReads() {
+        readWrite.executeWithoutResult(s -> {
+            jdbc.update("update node set name = name");
+            s.setRollbackOnly();
+        });
+
+        assertThat(readOnly.execute(s -> node()), is("replica"));
+    }
+
+    @Test
+    void readWriteTransactionThatOnlyReads_doesNotPinReads() {
+        readWrite.execute(s -> node());
+        readWrite.execute(s -> jdbc.update("update node set name = name where name = 'ninguno'"));
+
+        assertThat(readOnly.execute(s -> node()), is("replica"));
+    }
+
+    @Test
+    void connectionOutsideTransaction_goesToPrimaryWithoutCountingAsWrite() {
+        assertThat(node(), is("primary"));
+        assertThat(count("primary", "no-transaction"), is(1.0));
+        assertThat(count("primary", "read-write"), is(0.0));
+    }
+
+    private String node() {
+        return jdbc.queryForObject("select name from node", String.class);
+    }
+
+    private double count(String target, String reason) {
+        return meterRegistry.get(ReadWriteRoutingDataSource.METRIC)
+                .tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("routing-" + name)
+                .build();
+        JdbcTemplate template = new JdbcTemplate(db);
+        template.execute("create table node (name varchar(20))");
+        template.update("insert into node values (?)", name);
+        return db;
+    }
+}
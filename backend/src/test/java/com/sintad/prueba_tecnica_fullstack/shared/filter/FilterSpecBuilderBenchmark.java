@@ -0,0 +1,154 @@
+package com.sintad.prueba_tecnica_fullstack.shared.filter;
+
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import jakarta.persistence.criteria.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lo que paga cada petición filtrada de {@code /api/products} hasta tener el predicado: armar la
+ * Specification y aplicarla sobre un {@code CriteriaQuery} nuevo. Compara {@link FilterSpecBuilder}
+ * con planes precompilados contra el constructor anterior, que recorría las rutas y elegía el
+ * conversor en cada petición. Usa el CriteriaBuilder y el metamodelo reales de Hibernate sobre una
+ * H2 en memoria vacía; no se ejecuta ninguna consulta.
+ * <pre>mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=FilterSpecBuilder</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterSpecBuilderBenchmark {
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder cb;
+    private FilterSpecBuilder<Product> precompiled;
+    private PerRequestSpecBuilder<Product> perRequest;
+    private MultiValueMap<String, String> params;
+
+    @Setup
+    public void setUp() {
+        // Los listeners de las entidades reciben sus dependencias del contenedor, como en la aplicación
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("eventPublisher", (ApplicationEventPublisher) event -> { });
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Product.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:filter-benchmark;MODE=PostgreSQL")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "none")
+                .setProperty(AvailableSettings.SHOW_SQL, "false");
+        configuration.getProperties().put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beans));
+        sessionFactory = configuration.buildSessionFactory();
+        cb = sessionFactory.getCriteriaBuilder();
+        precompiled = new FilterSpecBuilder<>(new FilterPlanRegistry(sessionFactory));
+        perRequest = new PerRequestSpecBuilder<>();
+
+        // Un filtro de texto, uno tipado, uno por FK y uno sobre una relación
+        params = new LinkedMultiValueMap<>();
+        params.add("name", "Laptop");
+        params.add("stock", "5");
+        params.add("user$id", "1");
+        params.add("category$name", "tecno");
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate precompiled() {
+        return toPredicate(precompiled.build(Product.class, Product.ALLOWED_FILTERS, params));
+    }
+
+    @Benchmark
+    public Predicate perRequest() {
+        return toPredicate(perRequest.build(Product.class, Product.ALLOWED_FILTERS, params));
+    }
+
+    private Predicate toPredicate(Specification<Product> spec) {
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        return spec.toPredicate(query.from(Product.class), query, cb);
+    }
+
+    /** FilterSpecBuilder antes de los planes precompilados, como referencia (sin BETWEEN, que Product no usa). */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static class PerRequestSpecBuilder<T> {
+
+        Specification<T> build(Class<T> type, Map<String, Operator> allowed, MultiValueMap<String, String> params) {
+            return (root, query, cb) -> {
+                List<Predicate> predicates = new ArrayList<>();
+
+                allowed.forEach((field, operator) -> {
+                    String paramName = field.replace(".", "$");
+                    String value = params.getFirst(paramName);
+
+                    if (value == null) return;
+
+                    Path<?> path = getPath(root, field);
+
+                    switch (operator) {
+                        case LIKE -> predicates.add(
+                                cb.like(cb.lower(path.as(String.class)), "%" + value.toLowerCase() + "%"));
+
+                        case EQ -> predicates.add(cb.equal(path, cast(path, value)));
+
+                        case GT -> predicates.add(cb.greaterThan(
+                                (Expression<? extends Comparable>) path, (Comparable) cast(path, value)));
+
+                        case GTE -> predicates.add(cb.greaterThanOrEqualTo(
+                                (Expression<? extends Comparable>) path, (Comparable) cast(path, value)));
+
+                        case LT -> predicates.add(cb.lessThan(
+                                (Expression<? extends Comparable>) path, (Comparable) cast(path, value)));
+
+                        case LTE -> predicates.add(cb.lessThanOrEqualTo(
+                                (Expression<? extends Comparable>) path, (Comparable) cast(path, value)));
+
+                        case IN -> {
+                            CriteriaBuilder.In<Object> in = cb.in(path);
+                            Arrays.stream(value.split(","))
+                                    .map(v -> cast(path, v.trim()))
+                                    .forEach(in::value);
+                            predicates.add(in);
+                        }
+
+                        case DATE_EQ -> predicates.add(cb.equal(path.as(LocalDate.class), LocalDate.parse(value)));
+
+                        default -> { }
+                    }
+                });
+
+                return cb.and(predicates.toArray(new Predicate[0]));
+            };
+        }
+
+        private Path<?> getPath(Root<T> root, String field) {
+            if (!field.contains(".")) return root.get(field);
+            Path<?> path = root;
+            for (String part : field.split("\\.")) path = path.get(part);
+            return path;
+        }
+
+        private Object cast(Path<?> path, String value) {
+            return ValueConverter.convert(path.getJavaType(), value);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.sintad.prueba_tecnica_fullstack.shared.filter;
+
+import com.sintad.prueba_tecnica_fullstack.config.JpaConfig;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({JpaConfig.class, FilterPlanRegistry.class, FilterSpecBuilder.class})
+class FilterSpecBuilderTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private FilterSpecBuilder<Product> specBuilder;
+    @Autowired private FilterPlanRegistry planRegistry;
+
+    private User admin;
+    private User demo;
+
+    @BeforeEach
+    void setUp() {
+        admin = em.persist(User.builder().fullName("Administrador General").username("admin")
+                .password("x").role("ADMIN").createdAt(LocalDateTime.now()).build());
+        demo = em.persist(User.builder().fullName("Usuario Demo").username("usuario")
+                .password("x").role("OTRO").createdAt(LocalDateTime.now()).build());
+
+        Category tech = em.persist(Category.builder().name("Tecnología").user(admin).createdAt(LocalDateTime.now()).build());
+        Category books = em.persist(Category.builder().name("Libros").user(admin).createdAt(LocalDateTime.now()).build());
+
+        em.persist(product("Laptop Lenovo", 10, tech, admin));
+        em.persist(product("Mouse Logitech", 5, tech, demo));
+        Product javaBook = product("Libro Java", 5, books, demo);
+        javaBook.setDescription("Guía de programación 100% práctica");
+        em.persist(javaBook);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void build_combinesJoinedAndForeignKeyFilters() {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("category$name", "tecno");
+        params.add("user$id", demo.getId().toString());
+        params.add("user$username", "USU");
+
+        List<Product> result = productRepository.findAll(
+                specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params));
+
+        assertThat(result, hasSize(1));
+        assertThat(result.get(0).getName(), is("Mouse Logitech"));
+    }
+
+    @Test
+    void build_parsesTypedValues() {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("stock", "5");
+
+        List<Product> result = productRepository.findAll(
+                specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params));
+
+        assertThat(result, hasSize(2));
+    }
+
+    @Test
+    void build_invalidValue_throwsIllegalArgument() {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("stock", "muchos");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params));
+        assertThat(ex.getMessage(), containsString("No se pudo convertir el valor 'muchos' a tipo Integer"));
+    }
+
+    @Test
+    void build_searchMatchesAnyFieldForEveryTerm() {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("q", "  LIBRO   programación ");
+
+        List<Product> result = productRepository.findAll(
+                specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params));
+
+        assertThat(result, hasSize(1));
+        assertThat(result.get(0).getName(), is("Libro Java"));
+
+        params.set("q", "libro lenovo");
+        assertThat(productRepository.findAll(
+                specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params)), empty());
+    }
+
+    @Test
+    void build_searchEscapesLikeWildcards() {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("q", "100%");
+
+        assertThat(productRepository.findAll(
+                specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params)), hasSize(1));
+
+        params.set("q", "_");
+        assertThat(productRepository.findAll(
+                specBuilder.build(Product.class, Product.ALLOWED_FILTERS, params)), empty());
+    }
+
+    @Test
+    void compile_rejectsSearchOnNonTextField() {
+        EntityManager entityManager = em.getEntityManager();
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> FilterPlan.compile(
+                entityManager.getMetamodel().entity(Product.class), Map.of(), List.of("stock")));
+        assertThat(ex.getMessage(), containsString("SEARCH_FIELDS"));
+    }
+
+    @Test
+    void planFor_reusesPlanCompiledAtStartup() {
+        FilterPlan plan = planRegistry.planFor(Product.class, Product.ALLOWED_FILTERS);
+
+        assertThat(plan, sameInstance(planRegistry.planFor(Product.class, Product.ALLOWED_FILTERS)));
+        assertThat(plan.steps(), hasSize(Product.ALLOWED_FILTERS.size()));
+    }
+
+    @Test
+    void compile_rejectsUnknownAttribute() {
+        EntityManager entityManager = em.getEntityManager();
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> FilterPlan.compile(
+                entityManager.getMetamodel().entity(Product.class), Map.of("user_id", Operator.EQ)));
+        assertThat(ex.getMessage(), containsString("'user_id'"));
+    }
+
+    @Test
+    void compile_rejectsRangeOnNonComparableRelation() {
+        EntityManager entityManager = em.getEntityManager();
+
+        assertThrows(IllegalStateException.class, () -> FilterPlan.compile(
+                entityManager.getMetamodel().entity(Product.class), Map.of("category", Operator.GT)));
+    }
+
+    private Product product(String name, int stock, Category category, User user) {
+        return Product.builder()
+                .name(name)
+                .price(new BigDecimal("10.00"))
+                .stock(stock)
+                .category(category)
+                .user(user)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
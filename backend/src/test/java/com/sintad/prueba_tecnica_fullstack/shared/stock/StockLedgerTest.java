@@ -0,0 +1,294 @@
+package com.sintad.prueba_tecnica_fullstack.shared.stock;
+
+import com.sintad.prueba_tecnica_fullstack.config.JpaConfig;
+import com.sintad.prueba_tecnica_fullstack.entity.Category;
+import com.sintad.prueba_tecnica_fullstack.entity.Product;
+import com.sintad.prueba_tecnica_fullstack.entity.User;
+import com.sintad.prueba_tecnica_fullstack.repository.CategoryRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.ProductRepository;
+import com.sintad.prueba_tecnica_fullstack.repository.UserRepository;
+import com.sintad.prueba_tecnica_fullstack.shared.cache.EntityChangedEvent;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.ConflictException;
+import com.sintad.prueba_tecnica_fullstack.shared.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Cada ledger es un "proceso": reabrir el mismo directorio sin volcar simula una caída. */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLedgerTest {
+
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @TempDir private Path journalDir;
+
+    private final List<Object> events = new ArrayList<>();
+    private TransactionTemplate tx;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        productId = tx.execute(status -> {
+            User admin = userRepository.save(User.builder().fullName("Administrador General").username("admin")
+                    .password("x").role("ADMIN").createdAt(LocalDateTime.now()).build());
+            Category category = categoryRepository.save(Category.builder().name("Tecnología").user(admin)
+                    .createdAt(LocalDateTime.now()).build());
+            return productRepository.save(Product.builder().name("SSD").price(BigDecimal.TEN).stock(1000)
+                    .user(admin).category(category).createdAt(LocalDateTime.now()).build()).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            productRepository.deleteAll();
+            categoryRepository.deleteAll();
+            userRepository.deleteAll();
+        });
+        jdbcTemplate.update("delete from stock_journal_checkpoints");
+        jdbcTemplate.update("delete from stock_journal_resets");
+    }
+
+    @Test
+    void concurrentSales_neverOversell_andReachTheDatabaseOnFlush() throws Exception {
+        StockLedger ledger = ledger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> sales = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1200; i++) {
+                Callable<Boolean> sale = () -> {
+                    start.await();
+                    try {
+                        ledger.adjust(productId, -1);
+                        return true;
+                    } catch (ConflictException e) {
+                        return false;
+                    }
+                };
+                sales.add(executor.submit(sale));
+            }
+            start.countDown();
+            long sold = 0;
+            for (Future<Boolean> sale : sales) {
+                if (sale.get(60, TimeUnit.SECONDS)) sold++;
+            }
+            assertThat(sold, is(1000L));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Hasta el volcado la BD no se entera
+        assertThat(stock(), is(1000));
+        ledger.flush();
+        assertThat(stock(), is(0));
+        assertThat(productRepository.findById(productId).orElseThrow().getVersion(), is(1L));
+        assertThat(events, contains(new EntityChangedEvent(Product.class)));
+    }
+
+    @Test
+    void crashBeforeFlush_replaysTheJournalOnStartup() {
+        StockLedger crashed = ledger();
+        crashed.adjust(productId, -30);
+        crashed.adjust(productId, 5);
+
+        ledger();
+        assertThat(stock(), is(975));
+
+        // El checkpoint impide aplicarlo dos veces
+        ledger();
+        assertThat(stock(), is(975));
+    }
+
+    @Test
+    void crashAfterCommitButBeforeDeletingSegments_doesNotReapply() throws Exception {
+        StockLedger ledger = ledger();
+        ledger.adjust(productId, -10);
+        Path copies = Files.createDirectory(journalDir.resolve("copias"));
+        copySegments(journalDir, copies);
+
+        ledger.flush();
+        copySegments(copies, journalDir);
+
+        ledger();
+        assertThat(stock(), is(990));
+    }
+
+    @Test
+    void externalWrites_areReconciledOnTheNextFlush() {
+        StockLedger ledger = ledger();
+        assertThat(ledger.adjust(productId, -100), is(900));
+        jdbcTemplate.update("update products set stock = stock - 850 where id = ?", productId);
+
+        ledger.flush();
+
+        assertThat(stock(), is(50));
+        assertThrows(ConflictException.class, () -> ledger.adjust(productId, -51));
+        assertThat(ledger.adjust(productId, -50), is(0));
+    }
+
+    @Test
+    void flushesDuringConcurrentSales_loseNoAdjustment() throws Exception {
+        StockLedger ledger = ledger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> sellers = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                sellers.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) ledger.adjust(productId, -1);
+                }));
+            }
+            while (sellers.stream().anyMatch(seller -> !seller.isDone())) ledger.flush();
+            for (Future<?> seller : sellers) seller.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ledger.flush();
+        assertThat(stock(), is(200));
+        assertThat(ledger.adjust(productId, 0), is(200));
+    }
+
+    @Test
+    void deletedProduct_isDiscardedOnCommit_andRejectsFurtherAdjustments() {
+        StockLedger ledger = ledger();
+        ledger.adjust(productId, -1);
+
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.update("update products set deleted_at = ? where id = ?", LocalDateTime.now(), productId);
+            ledger.discardAfterCommit(productId);
+            // Hasta el commit la baja puede revertirse
+            assertThat(ledger.adjust(productId, -1), is(998));
+        });
+
+        assertThrows(NotFoundException.class, () -> ledger.adjust(productId, -1));
+    }
+
+    @Test
+    void absoluteWrite_replacesPendingAdjustments_evenAfterACrash() {
+        StockLedger ledger = ledger();
+        assertThat(ledger.adjust(productId, -100), is(900));
+
+        // Lo que hace el PUT con If-Match válido: la versión aún no refleja los ajustes sin volcar
+        tx.executeWithoutResult(status -> {
+            ledger.replace(productId);
+            jdbcTemplate.update("update products set stock = 10, version = version + 1 where id = ?", productId);
+        });
+
+        // Sin volcar: el diario anula los -100 y la recuperación no los suma al stock escrito
+        ledger();
+        assertThat(stock(), is(10));
+
+        ledger.flush();
+        assertThat(stock(), is(10));
+        assertThat(ledger.adjust(productId, 0), is(10));
+    }
+
+    @Test
+    void absoluteWrite_rolledBack_keepsPendingAdjustments() {
+        StockLedger ledger = ledger();
+        ledger.adjust(productId, -100);
+
+        tx.executeWithoutResult(status -> {
+            ledger.replace(productId);
+            jdbcTemplate.update("update products set stock = 10 where id = ?", productId);
+            status.setRollbackOnly();
+        });
+
+        assertThat(ledger.adjust(productId, 0), is(900));
+        ledger.flush();
+        assertThat(stock(), is(900));
+    }
+
+    @Test
+    void absoluteWrite_rolledBack_thenCrash_replaysPendingAdjustments() {
+        StockLedger ledger = ledger();
+        ledger.adjust(productId, -100);
+
+        tx.executeWithoutResult(status -> {
+            ledger.replace(productId);
+            // Con la escritura absoluta abierta el volcado no avanza el checkpoint
+            ledger.flush();
+            status.setRollbackOnly();
+        });
+
+        // La anulación se revirtió con la transacción: la recuperación aplica los -100
+        ledger();
+        assertThat(stock(), is(900));
+    }
+
+    @Test
+    void flush_rejectsDeltasThatWouldLeaveTheStockBelowZero() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StockLedger ledger = ledger(registry);
+        ledger.adjust(productId, -100);
+        // Escritura absoluta que no pasa por el ledger
+        jdbcTemplate.update("update products set stock = 50 where id = ?", productId);
+
+        ledger.flush();
+
+        assertThat(stock(), is(50));
+        assertThat(registry.counter(StockLedger.NAME + ".flush.rejected").count(), is(1.0));
+        assertThat(ledger.adjust(productId, 0), is(50));
+        assertThrows(ConflictException.class, () -> ledger.adjust(productId, -51));
+    }
+
+    private StockLedger ledger() {
+        return ledger(new SimpleMeterRegistry());
+    }
+
+    private StockLedger ledger(SimpleMeterRegistry registry) {
+        return new StockLedger(jdbcTemplate, transactionManager, events::add, journalDir, false,
+                Duration.ofHours(1), registry);
+    }
+
+    private int stock() {
+        return productRepository.findStockById(productId).orElseThrow();
+    }
+
+    private static void copySegments(Path from, Path to) throws Exception {
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".journal")).toList()) {
+                Files.copy(file, to.resolve(file.getFileName()));
+            }
+        }
+    }
+}